@@ -0,0 +1,101 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferRequest;
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.events.TransferEventBus;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.BalanceMutationTracker;
+import com.dws.challenge.service.FxRateService;
+import com.dws.challenge.tracing.TransferTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of tracing {@link AccountsService#transfer} at different sample rates, every thread moves money back and
+ * forth between its own pair of accounts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TransferTracingBenchmark {
+
+  @Param({"0", "0.01", "1"})
+  public double sampleRate;
+
+  private final AtomicInteger accountIds = new AtomicInteger();
+  private Path traceFile;
+  private TransferTracer tracer;
+  private TransferEventBus eventBus;
+  private AccountsService accountsService;
+
+  @Setup
+  public void setUp() throws Exception {
+    traceFile = Files.createTempFile("transfer-traces", ".jsonl");
+    tracer = new TransferTracer(sampleRate, 65_536, traceFile.toString(), 100);
+    eventBus = new TransferEventBus(1024, List.of(), new SimpleMeterRegistry());
+    accountsService = new AccountsService(
+      new AccountsRepositoryInMemory(),
+      new BalanceMutationTracker(),
+      new FxRateService(new ClassPathResource("fx-rates.properties")),
+      tracer,
+      eventBus,
+      List.of()
+    );
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    tracer.close();
+    eventBus.close();
+    Files.deleteIfExists(traceFile);
+  }
+
+  @State(Scope.Thread)
+  public static class AccountPair {
+    private TransferRequest forward;
+    private TransferRequest backward;
+    private boolean flip;
+
+    @Setup
+    public void setUp(TransferTracingBenchmark benchmark) {
+      var first = "bench-" + benchmark.accountIds.incrementAndGet();
+      var second = "bench-" + benchmark.accountIds.incrementAndGet();
+      benchmark.accountsService.createAccount(new Account(first, BigDecimal.valueOf(1_000)));
+      benchmark.accountsService.createAccount(new Account(second, BigDecimal.valueOf(1_000)));
+      forward = new TransferRequest(first, second, BigDecimal.ONE);
+      backward = new TransferRequest(second, first, BigDecimal.ONE);
+    }
+  }
+
+  @Benchmark
+  public TransferStatus transfer(AccountPair pair) {
+    pair.flip = !pair.flip;
+    return accountsService.transfer(pair.flip ? pair.forward : pair.backward);
+  }
+}
@@ -0,0 +1,73 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.fraud.VelocityCheck;
+import com.dws.challenge.service.FxRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a {@link VelocityCheck} decision with default sketch sizes, transfers go between random accounts
+ * out of a million so that sketches and known pairs see realistic collisions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class VelocityCheckBenchmark {
+
+  private static final int ACCOUNTS = 1_000_000;
+  private static final int MASK = 1023;
+
+  private VelocityCheck velocityCheck;
+
+  @Setup
+  public void setUp() {
+    velocityCheck = new VelocityCheck(true, true, 60_000, 6, 8192, 4, 100, BigDecimal.TEN, 50,
+      BigDecimal.valueOf(10_000), 1_000_000, new FxRateService(new ClassPathResource("fx-rates.properties")),
+      new SimpleMeterRegistry());
+  }
+
+  @State(Scope.Thread)
+  public static class Transfers {
+    private final Account[] from = new Account[MASK + 1];
+    private final Account[] to = new Account[MASK + 1];
+    private final BigDecimal[] amounts = new BigDecimal[MASK + 1];
+    private int next;
+
+    @Setup
+    public void setUp() {
+      var random = ThreadLocalRandom.current();
+      for (int i = 0; i <= MASK; i++) {
+        from[i] = new Account("bench-" + random.nextInt(ACCOUNTS));
+        to[i] = new Account("bench-" + random.nextInt(ACCOUNTS));
+        amounts[i] = BigDecimal.valueOf(random.nextInt(1, 20_000));
+      }
+    }
+  }
+
+  @Benchmark
+  public TransferStatus check(Transfers transfers) {
+    int index = transfers.next++ & MASK;
+    return velocityCheck.check(transfers.from[index], transfers.to[index], transfers.amounts[index]);
+  }
+}
@@ -0,0 +1,73 @@
+package com.dws.challenge.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Picks account indexes in {@code [0, accounts)} according to a skew profile:
+ * <ul>
+ *   <li>{@code uniform} - every account is equally likely</li>
+ *   <li>{@code zipf:<exponent>} - account {@code i} is picked with probability proportional to {@code 1 / (i + 1)^exponent}</li>
+ *   <li>{@code hot:<accountShare>:<trafficShare>} - e.g. {@code hot:0.01:0.9} sends 90% of picks to 1% of accounts</li>
+ * </ul>
+ */
+interface AccountSkew {
+
+  int next(Random random);
+
+  static AccountSkew parse(String spec, int accounts) {
+    String[] parts = spec.split(":");
+    switch (parts[0]) {
+      case "uniform":
+        return random -> random.nextInt(accounts);
+      case "zipf":
+        return new Zipf(accounts, Double.parseDouble(parts[1]));
+      case "hot":
+        return new HotSet(accounts, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+      default:
+        throw new IllegalArgumentException("Unknown skew profile " + spec);
+    }
+  }
+
+  class Zipf implements AccountSkew {
+    private final double[] cumulative;
+
+    Zipf(int accounts, double exponent) {
+      cumulative = new double[accounts];
+      double sum = 0;
+      for (int i = 0; i < accounts; i++) {
+        sum += 1 / Math.pow(i + 1, exponent);
+        cumulative[i] = sum;
+      }
+      for (int i = 0; i < accounts; i++) {
+        cumulative[i] /= sum;
+      }
+    }
+
+    @Override
+    public int next(Random random) {
+      int index = Arrays.binarySearch(cumulative, random.nextDouble());
+      return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+  }
+
+  class HotSet implements AccountSkew {
+    private final int accounts;
+    private final int hotAccounts;
+    private final double trafficShare;
+
+    HotSet(int accounts, double accountShare, double trafficShare) {
+      this.accounts = accounts;
+      this.hotAccounts = Math.max(1, Math.min(accounts - 1, (int) (accounts * accountShare)));
+      this.trafficShare = trafficShare;
+    }
+
+    @Override
+    public int next(Random random) {
+      if (random.nextDouble() < trafficShare) {
+        return random.nextInt(hotAccounts);
+      }
+      return hotAccounts + random.nextInt(accounts - hotAccounts);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.dws.challenge.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of {@link TransferLoadTest}, passed as {@code --key=value}.
+ */
+class LoadTestOptions {
+
+  /** Target arrival rate, requests per second. */
+  final int rate;
+  final Duration duration;
+  /** Initial part of the run that is executed but not recorded into the final histogram. */
+  final Duration warmup;
+  final Duration reportInterval;
+  final int accounts;
+  final long initialBalance;
+  final long maxAmount;
+  final String skew;
+  /** Fail the run if p99 exceeds this value, disabled when zero. */
+  final long maxP99Millis;
+  final Path histogramOutput;
+
+  private LoadTestOptions(Map<String, String> options) {
+    this.rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+    this.duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+    this.warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+    this.reportInterval = Duration.parse(options.getOrDefault("report-interval", "PT5S"));
+    this.accounts = Integer.parseInt(options.getOrDefault("accounts", "1000"));
+    this.initialBalance = Long.parseLong(options.getOrDefault("initial-balance", "1000"));
+    this.maxAmount = Long.parseLong(options.getOrDefault("max-amount", "10"));
+    this.skew = options.getOrDefault("skew", "uniform");
+    this.maxP99Millis = Long.parseLong(options.getOrDefault("max-p99-ms", "0"));
+    this.histogramOutput = Path.of(options.getOrDefault("histogram-output", "build/loadtest/transfer.hgrm"));
+
+    if (rate <= 0 || accounts < 2 || maxAmount <= 0) {
+      throw new IllegalArgumentException("rate and max-amount must be positive, at least 2 accounts are required");
+    }
+    if (warmup.compareTo(duration) >= 0) {
+      throw new IllegalArgumentException("warmup " + warmup + " must be shorter than duration " + duration);
+    }
+  }
+
+  static LoadTestOptions parse(String... args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value but got " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return new LoadTestOptions(options);
+  }
+
+  @Override
+  public String toString() {
+    return "rate=" + rate + "/s, duration=" + duration + ", warmup=" + warmup + ", accounts=" + accounts
+      + ", initialBalance=" + initialBalance + ", maxAmount=" + maxAmount + ", skew=" + skew;
+  }
+}
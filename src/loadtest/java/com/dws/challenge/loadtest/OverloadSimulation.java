@@ -0,0 +1,116 @@
+package com.dws.challenge.loadtest;
+
+import com.dws.challenge.web.AdaptiveConcurrencyLimiter;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discrete-event simulation of the transfer endpoint behind {@link AdaptiveConcurrencyLimiter} under a sustained
+ * overload. The server executes admitted requests on a fixed number of workers with exponentially distributed
+ * service times, requests arrive as a Poisson process at a multiple of the server capacity. Time is simulated, so
+ * minutes of overload run in about a second and results are reproducible for a given seed.
+ * <p>
+ * The run fails if p99 of admitted requests measured after the warmup exceeds {@code max-p99-ms}, i.e. if the
+ * limiter let the queue grow with the overload.
+ */
+public class OverloadSimulation {
+
+  private final OverloadSimulationOptions options;
+
+  OverloadSimulation(OverloadSimulationOptions options) {
+    this.options = options;
+  }
+
+  public static void main(String[] args) {
+    var options = OverloadSimulationOptions.parse(args);
+    System.exit(new OverloadSimulation(options).run());
+  }
+
+  int run() {
+    System.out.println("Overload simulation: " + options);
+    var random = new Random(options.seed);
+    var clock = new long[1];
+    var limiter = new AdaptiveConcurrencyLimiter(options.initialLimit, options.minLimit, options.maxLimit,
+      TimeUnit.MILLISECONDS.toNanos(options.windowMillis), options.minWindowSamples, options.latencyTolerance,
+      options.backoffRatio, () -> clock[0]);
+
+    long serviceNanos = TimeUnit.MICROSECONDS.toNanos(options.serviceTimeMicros);
+    double capacityPerNano = (double) options.workers / serviceNanos;
+    double arrivalsPerNano = capacityPerNano * options.overload;
+    long end = options.duration.toNanos();
+    long warmupEnd = options.warmup.toNanos();
+    long reportInterval = options.reportInterval.toNanos();
+
+    // completion times of requests being served, and arrival times of admitted requests waiting for a worker
+    var completions = new PriorityQueue<long[]>((left, right) -> Long.compare(left[0], right[0]));
+    var waiting = new ArrayDeque<Long>();
+    var measured = new Histogram(TimeUnit.SECONDS.toNanos(60), 3);
+    var interval = new Histogram(TimeUnit.SECONDS.toNanos(60), 3);
+    long arrivals = 0;
+    long rejected = 0;
+    long nextArrival = exponential(random, arrivalsPerNano);
+    long nextReport = reportInterval;
+    int maxLimitAfterWarmup = 0;
+
+    while (clock[0] < end) {
+      boolean arrival = completions.isEmpty() || nextArrival < completions.peek()[0];
+      clock[0] = arrival ? nextArrival : completions.peek()[0];
+      while (clock[0] >= nextReport) {
+        report(nextReport, interval, limiter);
+        interval.reset();
+        nextReport += reportInterval;
+      }
+      if (arrival) {
+        arrivals++;
+        nextArrival = clock[0] + exponential(random, arrivalsPerNano);
+        if (!limiter.tryAcquire()) {
+          rejected++;
+          continue;
+        }
+        if (completions.size() < options.workers) {
+          completions.add(new long[]{clock[0] + exponential(random, 1.0 / serviceNanos), clock[0]});
+        } else {
+          waiting.add(clock[0]);
+        }
+      } else {
+        var completed = completions.poll();
+        long latency = clock[0] - completed[1];
+        limiter.release(latency);
+        interval.recordValue(latency);
+        if (completed[1] >= warmupEnd) {
+          measured.recordValue(latency);
+          maxLimitAfterWarmup = Math.max(maxLimitAfterWarmup, limiter.getLimit());
+        }
+        if (!waiting.isEmpty()) {
+          completions.add(new long[]{clock[0] + exponential(random, 1.0 / serviceNanos), waiting.poll()});
+        }
+      }
+    }
+
+    double p99Millis = measured.getValueAtPercentile(99) / 1e6;
+    System.out.printf("Capacity %.0f/s, offered %.0f/s, rejected %.1f%%%n", capacityPerNano * 1e9,
+      arrivalsPerNano * 1e9, 100.0 * rejected / arrivals);
+    System.out.printf("Admitted after warmup: %d, p50 %.3f ms, p99 %.3f ms, max %.3f ms, highest limit %d%n",
+      measured.getTotalCount(), measured.getValueAtPercentile(50) / 1e6, p99Millis, measured.getMaxValue() / 1e6,
+      maxLimitAfterWarmup);
+    if (p99Millis > options.maxP99Millis) {
+      System.out.printf("FAILED: p99 %.3f ms exceeds %d ms%n", p99Millis, options.maxP99Millis);
+      return 1;
+    }
+    System.out.println("p99 stayed within " + options.maxP99Millis + " ms");
+    return 0;
+  }
+
+  private static void report(long now, Histogram interval, AdaptiveConcurrencyLimiter limiter) {
+    System.out.printf("%6.1fs  limit %4d  baseline %8.3f ms  p99 %8.3f ms%n", now / 1e9, limiter.getLimit(),
+      limiter.getNoLoadLatency() / 1e6, interval.getValueAtPercentile(99) / 1e6);
+  }
+
+  private static long exponential(Random random, double ratePerNano) {
+    return Math.max(1, (long) (-Math.log(1 - random.nextDouble()) / ratePerNano));
+  }
+}
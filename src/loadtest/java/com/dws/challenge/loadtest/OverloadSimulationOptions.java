@@ -0,0 +1,77 @@
+package com.dws.challenge.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of {@link OverloadSimulation}, passed as {@code --key=value}. Limiter settings default to
+ * the {@code challenge.admission.*} defaults of the application.
+ */
+class OverloadSimulationOptions {
+
+  final int workers;
+  /** Mean service time of a request without queueing. */
+  final long serviceTimeMicros;
+  /** Arrival rate as a multiple of the server capacity. */
+  final double overload;
+  /** Simulated time. */
+  final Duration duration;
+  /** Initial part of the run that is not recorded into the final histogram. */
+  final Duration warmup;
+  final Duration reportInterval;
+  final long seed;
+  final long maxP99Millis;
+
+  final int initialLimit;
+  final int minLimit;
+  final int maxLimit;
+  final long windowMillis;
+  final int minWindowSamples;
+  final double latencyTolerance;
+  final double backoffRatio;
+
+  private OverloadSimulationOptions(Map<String, String> options) {
+    this.workers = Integer.parseInt(options.getOrDefault("workers", "8"));
+    this.serviceTimeMicros = Long.parseLong(options.getOrDefault("service-time-us", "1000"));
+    this.overload = Double.parseDouble(options.getOrDefault("overload", "2"));
+    this.duration = Duration.parse(options.getOrDefault("duration", "PT10M"));
+    this.warmup = Duration.parse(options.getOrDefault("warmup", "PT30S"));
+    this.reportInterval = Duration.parse(options.getOrDefault("report-interval", "PT30S"));
+    this.seed = Long.parseLong(options.getOrDefault("seed", "1"));
+    this.maxP99Millis = Long.parseLong(options.getOrDefault("max-p99-ms", "20"));
+    this.initialLimit = Integer.parseInt(options.getOrDefault("initial-limit", "50"));
+    this.minLimit = Integer.parseInt(options.getOrDefault("min-limit", "10"));
+    this.maxLimit = Integer.parseInt(options.getOrDefault("max-limit", "200"));
+    this.windowMillis = Long.parseLong(options.getOrDefault("window-ms", "100"));
+    this.minWindowSamples = Integer.parseInt(options.getOrDefault("min-window-samples", "20"));
+    this.latencyTolerance = Double.parseDouble(options.getOrDefault("latency-tolerance", "2.0"));
+    this.backoffRatio = Double.parseDouble(options.getOrDefault("backoff-ratio", "0.9"));
+
+    if (workers <= 0 || serviceTimeMicros <= 0 || overload <= 0) {
+      throw new IllegalArgumentException("workers, service-time-us and overload must be positive");
+    }
+    if (warmup.compareTo(duration) >= 0) {
+      throw new IllegalArgumentException("warmup " + warmup + " must be shorter than duration " + duration);
+    }
+  }
+
+  static OverloadSimulationOptions parse(String... args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value but got " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return new OverloadSimulationOptions(options);
+  }
+
+  @Override
+  public String toString() {
+    return "workers=" + workers + ", serviceTime=" + serviceTimeMicros + "us, overload=" + overload + "x, duration="
+      + duration + ", warmup=" + warmup + ", limit=" + initialLimit + " [" + minLimit + ", " + maxLimit + "], window="
+      + windowMillis + "ms, tolerance=" + latencyTolerance + ", backoff=" + backoffRatio;
+  }
+}
@@ -0,0 +1,263 @@
+package com.dws.challenge.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the application in a fresh JVM several times and measures how long a new instance takes to answer its
+ * first request, to report itself ready and to reach its steady-state transfer latency.
+ * <p>
+ * Once an instance is ready it is driven by closed-loop clients and p99 is recorded per window. The steady-state
+ * p99 is the p99 of the last quarter of the run, the instance counts as warm from the end of the last window whose
+ * p99 exceeded it by more than the tolerance.
+ */
+public class StartupBenchmark {
+
+  private static final String MAIN_CLASS = "com.dws.challenge.ChallengeApplication";
+  private static final String ACCOUNT_PREFIX = "startup-";
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+  private static final long POLL_MILLIS = 5;
+  private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+  private final StartupBenchmarkOptions options;
+  private final HttpClient client = HttpClient.newBuilder()
+    .version(HttpClient.Version.HTTP_1_1)
+    .connectTimeout(Duration.ofSeconds(1))
+    .build();
+
+  StartupBenchmark(StartupBenchmarkOptions options) {
+    this.options = options;
+  }
+
+  public static void main(String[] args) throws Exception {
+    var options = StartupBenchmarkOptions.parse(args);
+    System.out.println("Startup benchmark: " + options);
+    var benchmark = new StartupBenchmark(options);
+    List<RunResult> results = new ArrayList<>();
+    for (int i = 1; i <= options.runs; i++) {
+      var result = benchmark.run(i);
+      System.out.println("run " + i + ": " + result);
+      results.add(result);
+    }
+    System.out.printf("median: first response %.0f ms, ready %.0f ms, first transfer %.0f ms, steady p99 %.3f ms "
+        + "reached at %.0f ms%n",
+      median(results, result -> result.firstResponse) / NANOS_PER_MILLI,
+      median(results, result -> result.ready) / NANOS_PER_MILLI,
+      median(results, result -> result.firstTransfer) / NANOS_PER_MILLI,
+      median(results, RunResult::steadyP99) / NANOS_PER_MILLI,
+      median(results, RunResult::steadyAt) / NANOS_PER_MILLI);
+    System.exit(results.stream().anyMatch(result -> result.failures > 0) ? 1 : 0);
+  }
+
+  RunResult run(int index) throws Exception {
+    int port = freePort();
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(options.jvmArgs);
+    command.add("-cp");
+    command.add(options.classpath);
+    command.add(MAIN_CLASS);
+    command.add("--server.port=" + port);
+    command.add("--challenge.scheduler.store-file=");
+    command.addAll(options.appArgs);
+    var log = Path.of("build", "startup", "run-" + index + ".log");
+    Files.createDirectories(log.getParent());
+
+    long start = System.nanoTime();
+    var process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    try {
+      var base = URI.create("http://localhost:" + port);
+      var result = new RunResult(options.steadyTolerance, log);
+      // any answer counts, the probed account does not exist
+      result.firstResponse = awaitResponse(process, base.resolve("/v1/accounts/" + ACCOUNT_PREFIX + "probe"), false) - start;
+      result.ready = awaitResponse(process, base.resolve("/actuator/health/readiness"), true) - start;
+      createAccounts(base);
+      drive(base.resolve("/v1/accounts/transfer"), start, result);
+      return result;
+    } finally {
+      process.destroy();
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /**
+   * @return {@link System#nanoTime()} of the first response, a 200 one if {@code requireOk}
+   */
+  private long awaitResponse(Process process, URI uri, boolean requireOk) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(uri).GET().build();
+    long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("Application exited with code " + process.exitValue() + " before " + uri
+          + " answered");
+      }
+      try {
+        var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (!requireOk || response.statusCode() == 200) {
+          return System.nanoTime();
+        }
+      } catch (IOException e) {
+        // not listening yet
+      }
+      TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+    }
+    throw new IllegalStateException(uri + " did not answer within " + START_TIMEOUT);
+  }
+
+  private void createAccounts(URI base) throws IOException, InterruptedException {
+    for (int i = 0; i < options.accounts; i++) {
+      var request = HttpRequest.newBuilder(base.resolve("/v1/accounts"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("{\"accountId\":\"" + ACCOUNT_PREFIX + i + "\",\"balance\":1000000}"))
+        .build();
+      var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 201) {
+        throw new IllegalStateException("Failed to create account " + ACCOUNT_PREFIX + i + ": " + response.body());
+      }
+    }
+  }
+
+  private void drive(URI transferUri, long start, RunResult result) throws InterruptedException {
+    var recorder = new Recorder(3);
+    var failures = new LongAdder();
+    long windowNanos = options.window.toNanos();
+    long runStart = System.nanoTime();
+    long runEnd = runStart + options.duration.toNanos();
+    var clients = Executors.newFixedThreadPool(options.concurrency);
+    for (int i = 0; i < options.concurrency; i++) {
+      clients.execute(() -> {
+        var random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < runEnd) {
+          int from = random.nextInt(options.accounts);
+          int to = (from + 1 + random.nextInt(options.accounts - 1)) % options.accounts;
+          var request = HttpRequest.newBuilder(transferUri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"fromAccountId\":\"" + ACCOUNT_PREFIX + from
+              + "\",\"toAccountId\":\"" + ACCOUNT_PREFIX + to + "\",\"amount\":1}"))
+            .build();
+          try {
+            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 500) {
+              failures.increment();
+            }
+          } catch (IOException e) {
+            failures.increment();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          long end = System.nanoTime();
+          recorder.recordValue(end - now);
+          synchronized (result) {
+            if (result.firstTransfer == 0) {
+              result.firstTransfer = end - start;
+              result.firstTransferLatency = end - now;
+            }
+          }
+        }
+      });
+    }
+    for (long windowEnd = runStart + windowNanos; windowEnd <= runEnd; windowEnd += windowNanos) {
+      long now;
+      while ((now = System.nanoTime()) < windowEnd) {
+        TimeUnit.NANOSECONDS.sleep(windowEnd - now);
+      }
+      result.windows.add(new Window(windowEnd - start, recorder.getIntervalHistogram()));
+    }
+    clients.shutdown();
+    clients.awaitTermination(30, TimeUnit.SECONDS);
+    result.failures = failures.sum();
+  }
+
+  private static int freePort() throws IOException {
+    try (var socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static double median(List<RunResult> results, ToLongFunction<RunResult> metric) {
+    var sorted = results.stream().mapToLong(metric).sorted().toArray();
+    int middle = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+  }
+
+  private static class Window {
+    /** End of the window since the process was started. */
+    final long end;
+    final Histogram histogram;
+
+    Window(long end, Histogram histogram) {
+      this.end = end;
+      this.histogram = histogram;
+    }
+  }
+
+  /**
+   * Times are in nanoseconds since the process was started.
+   */
+  private static class RunResult {
+    private final double steadyTolerance;
+    private final Path log;
+    private final List<Window> windows = new ArrayList<>();
+    long firstResponse;
+    long ready;
+    long firstTransfer;
+    long firstTransferLatency;
+    long failures;
+
+    RunResult(double steadyTolerance, Path log) {
+      this.steadyTolerance = steadyTolerance;
+      this.log = log;
+    }
+
+    long steadyP99() {
+      var lastQuarter = new Histogram(3);
+      windows.subList(windows.size() - windows.size() / 4, windows.size())
+        .forEach(window -> lastQuarter.add(window.histogram));
+      return lastQuarter.getValueAtPercentile(99);
+    }
+
+    long steadyAt() {
+      double threshold = steadyP99() * steadyTolerance;
+      long steadyAt = firstTransfer;
+      for (var window : windows) {
+        if (window.histogram.getValueAtPercentile(99) > threshold) {
+          steadyAt = window.end;
+        }
+      }
+      return steadyAt;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("first response %.0f ms, ready %.0f ms, first transfer %.0f ms (took %.3f ms), "
+          + "steady p99 %.3f ms reached at %.0f ms, failures %d, log %s%n  p99 per window (ms): %s",
+        firstResponse / NANOS_PER_MILLI, ready / NANOS_PER_MILLI, firstTransfer / NANOS_PER_MILLI,
+        firstTransferLatency / NANOS_PER_MILLI, steadyP99() / NANOS_PER_MILLI, steadyAt() / NANOS_PER_MILLI,
+        failures, log, windows.stream()
+          .map(window -> String.format("%.3f", window.histogram.getValueAtPercentile(99) / NANOS_PER_MILLI))
+          .collect(Collectors.joining(" ")));
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.dws.challenge.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of {@link StartupBenchmark}, passed as {@code --key=value}.
+ */
+class StartupBenchmarkOptions {
+
+  /** Classpath of the started application, jars only if class-data sharing is used. */
+  final String classpath;
+  /** Options of the started JVMs, separated by spaces. */
+  final List<String> jvmArgs;
+  /** Arguments of the started applications, separated by spaces. */
+  final List<String> appArgs;
+  /** Number of instances started one after another. */
+  final int runs;
+  /** How long transfers are sent to every instance once it is ready. */
+  final Duration duration;
+  final Duration window;
+  /** Closed-loop clients sending transfers. */
+  final int concurrency;
+  final int accounts;
+  /** A window is steady if its p99 is within this factor of the p99 of the last quarter of the run. */
+  final double steadyTolerance;
+
+  private StartupBenchmarkOptions(Map<String, String> options) {
+    this.classpath = options.getOrDefault("classpath", System.getProperty("java.class.path"));
+    this.jvmArgs = split(options.getOrDefault("jvm-args", ""));
+    this.appArgs = split(options.getOrDefault("app-args", ""));
+    this.runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+    this.duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+    this.window = Duration.parse(options.getOrDefault("window", "PT1S"));
+    this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "4"));
+    this.accounts = Integer.parseInt(options.getOrDefault("accounts", "100"));
+    this.steadyTolerance = Double.parseDouble(options.getOrDefault("steady-tolerance", "1.5"));
+
+    if (runs <= 0 || concurrency <= 0 || accounts < 2 || steadyTolerance < 1) {
+      throw new IllegalArgumentException("runs and concurrency must be positive, at least 2 accounts are required"
+        + " and steady-tolerance must not be below 1");
+    }
+    if (duration.compareTo(window.multipliedBy(4)) < 0) {
+      throw new IllegalArgumentException("duration " + duration + " must span at least 4 windows of " + window);
+    }
+  }
+
+  private static List<String> split(String value) {
+    return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+  }
+
+  static StartupBenchmarkOptions parse(String... args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value but got " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return new StartupBenchmarkOptions(options);
+  }
+
+  @Override
+  public String toString() {
+    return "jvmArgs=" + jvmArgs + ", appArgs=" + appArgs + ", runs=" + runs + ", duration=" + duration
+      + ", window=" + window + ", concurrency=" + concurrency + ", accounts=" + accounts;
+  }
+}
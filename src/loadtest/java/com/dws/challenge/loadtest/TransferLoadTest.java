@@ -0,0 +1,253 @@
+package com.dws.challenge.loadtest;
+
+import com.dws.challenge.ChallengeApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for {@code POST /v1/accounts/transfer}.
+ * <p>
+ * Requests are issued at a constant arrival rate regardless of how fast the server answers and latency is measured
+ * from the moment a request was <em>supposed</em> to be sent, so the recorded distribution is free of coordinated
+ * omission. When the run is over the balances of all accounts are summed up to verify that no money was created or lost.
+ */
+public class TransferLoadTest {
+
+  private static final String ACCOUNT_PREFIX = "load-";
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final LoadTestOptions options;
+  private final URI accountsUri;
+  private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Recorder intervalRecorder = new Recorder(3);
+  private final Recorder measuredRecorder = new Recorder(3);
+  /** Measured requests which were not shed with 429 by admission control. */
+  private final Recorder admittedRecorder = new Recorder(3);
+  private final ConcurrentMap<Integer, LongAdder> responses = new ConcurrentHashMap<>();
+  private final LongAdder failures = new LongAdder();
+  private final AtomicLong outstanding = new AtomicLong();
+
+  TransferLoadTest(LoadTestOptions options, URI accountsUri) {
+    this.options = options;
+    this.accountsUri = accountsUri;
+  }
+
+  public static void main(String[] args) throws Exception {
+    var options = LoadTestOptions.parse(args);
+    var context = new SpringApplicationBuilder(ChallengeApplication.class)
+      .properties("server.port=0", "logging.level.com.dws.challenge=WARN")
+      .run();
+    int exitCode;
+    try {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      exitCode = new TransferLoadTest(options, URI.create("http://localhost:" + port + "/v1/accounts")).run();
+    } finally {
+      context.close();
+    }
+    System.exit(exitCode);
+  }
+
+  int run() throws Exception {
+    System.out.println("Load test: " + options);
+    createAccounts();
+    var totalBefore = totalBalance();
+
+    var reporter = Executors.newSingleThreadScheduledExecutor();
+    long reportMillis = options.reportInterval.toMillis();
+    reporter.scheduleAtFixedRate(this::reportInterval, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+    long maxSendLag;
+    boolean drained;
+    try {
+      maxSendLag = drive();
+      drained = awaitOutstanding();
+    } finally {
+      reporter.shutdownNow();
+    }
+
+    var measured = measuredRecorder.getIntervalHistogram();
+    var admitted = admittedRecorder.getIntervalHistogram();
+    printSummary(measured, admitted, maxSendLag);
+    writeHistogram(measured);
+
+    boolean conserved = false;
+    if (drained) {
+      var totalAfter = totalBalance();
+      conserved = totalBefore.compareTo(totalAfter) == 0;
+      System.out.println("Money supply before: " + totalBefore + ", after: " + totalAfter
+        + (conserved ? " - conserved" : " - VIOLATED"));
+    } else {
+      // transfers still in flight would make the total differ without money being lost
+      System.out.println("Money supply not checked, requests are still outstanding");
+    }
+
+    boolean p99Exceeded = options.maxP99Millis > 0
+      && admitted.getValueAtPercentile(99) > TimeUnit.MILLISECONDS.toNanos(options.maxP99Millis);
+    if (p99Exceeded) {
+      System.out.println("p99 of admitted requests exceeds the limit of " + options.maxP99Millis + " ms");
+    }
+    return conserved && !p99Exceeded && failures.sum() == 0 ? 0 : 1;
+  }
+
+  /**
+   * @return the worst observed delay between the intended and actual send time, a large value means the generator
+   * itself could not keep up with the requested rate
+   */
+  private long drive() {
+    var skew = AccountSkew.parse(options.skew, options.accounts);
+    var random = ThreadLocalRandom.current();
+    var transferUri = accountsUri.resolve("/v1/accounts/transfer");
+    double intervalNanos = 1_000_000_000.0 / options.rate;
+
+    long start = System.nanoTime();
+    long end = start + options.duration.toNanos();
+    long warmupEnd = start + options.warmup.toNanos();
+    long maxSendLag = 0;
+    for (long sent = 0; ; sent++) {
+      long intendedStart = start + (long) (sent * intervalNanos);
+      if (intendedStart >= end) {
+        return maxSendLag;
+      }
+      long now;
+      while ((now = System.nanoTime()) < intendedStart) {
+        LockSupport.parkNanos(intendedStart - now);
+      }
+      maxSendLag = Math.max(maxSendLag, now - intendedStart);
+
+      int from = skew.next(random);
+      int to = skew.next(random);
+      if (to == from) {
+        to = (from + 1) % options.accounts;
+      }
+      long amount = 1 + random.nextLong(options.maxAmount);
+      var request = HttpRequest.newBuilder(transferUri)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("{\"fromAccountId\":\"" + ACCOUNT_PREFIX + from
+          + "\",\"toAccountId\":\"" + ACCOUNT_PREFIX + to + "\",\"amount\":" + amount + "}"))
+        .build();
+      send(request, intendedStart, intendedStart >= warmupEnd);
+    }
+  }
+
+  private void send(HttpRequest request, long intendedStart, boolean measured) {
+    outstanding.incrementAndGet();
+    client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+      long latency = System.nanoTime() - intendedStart;
+      intervalRecorder.recordValue(latency);
+      if (measured) {
+        measuredRecorder.recordValue(latency);
+      }
+      if (error != null) {
+        failures.increment();
+      } else {
+        responses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+        if (response.statusCode() >= 500) {
+          failures.increment();
+        }
+        if (measured && response.statusCode() != TOO_MANY_REQUESTS) {
+          admittedRecorder.recordValue(latency);
+        }
+      }
+      outstanding.decrementAndGet();
+    });
+  }
+
+  /**
+   * @return whether all requests have completed
+   */
+  private boolean awaitOutstanding() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    if (outstanding.get() > 0) {
+      System.out.println(outstanding.get() + " requests still outstanding, giving up waiting for them");
+      return false;
+    }
+    return true;
+  }
+
+  private void reportInterval() {
+    var interval = intervalRecorder.getIntervalHistogram();
+    System.out.printf("interval: count=%d p50=%.3fms p99=%.3fms max=%.3fms%n",
+      interval.getTotalCount(),
+      interval.getValueAtPercentile(50) / NANOS_PER_MILLI,
+      interval.getValueAtPercentile(99) / NANOS_PER_MILLI,
+      interval.getMaxValue() / NANOS_PER_MILLI);
+  }
+
+  private void printSummary(Histogram measured, Histogram admitted, long maxSendLag) {
+    printPercentiles("measured", measured);
+    printPercentiles("admitted", admitted);
+    Map<Integer, Long> byStatus = new TreeMap<>();
+    responses.forEach((status, count) -> byStatus.put(status, count.sum()));
+    System.out.println("responses by status: " + byStatus + ", failures: " + failures.sum()
+      + ", max send lag: " + String.format("%.3fms", maxSendLag / NANOS_PER_MILLI));
+  }
+
+  private static void printPercentiles(String name, Histogram histogram) {
+    System.out.printf("%s: count=%d p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms%n",
+      name,
+      histogram.getTotalCount(),
+      histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+      histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+      histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+      histogram.getMaxValue() / NANOS_PER_MILLI);
+  }
+
+  private void writeHistogram(Histogram measured) throws IOException {
+    Files.createDirectories(options.histogramOutput.toAbsolutePath().getParent());
+    try (var out = new PrintStream(Files.newOutputStream(options.histogramOutput))) {
+      measured.outputPercentileDistribution(out, NANOS_PER_MILLI);
+    }
+    System.out.println("Percentile distribution (ms) written to " + options.histogramOutput.toAbsolutePath());
+  }
+
+  private void createAccounts() throws IOException, InterruptedException {
+    for (int i = 0; i < options.accounts; i++) {
+      var request = HttpRequest.newBuilder(accountsUri)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("{\"accountId\":\"" + ACCOUNT_PREFIX + i
+          + "\",\"balance\":" + options.initialBalance + "}"))
+        .build();
+      var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 201) {
+        throw new IllegalStateException("Failed to create account " + ACCOUNT_PREFIX + i + ": " + response.body());
+      }
+    }
+  }
+
+  private BigDecimal totalBalance() throws IOException, InterruptedException {
+    var total = BigDecimal.ZERO;
+    for (int i = 0; i < options.accounts; i++) {
+      var request = HttpRequest.newBuilder(accountsUri.resolve("/v1/accounts/" + ACCOUNT_PREFIX + i)).GET().build();
+      var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+      total = total.add(objectMapper.readTree(response.body()).get("balance").decimalValue());
+    }
+    return total;
+  }
+}
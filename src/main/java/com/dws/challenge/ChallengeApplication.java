@@ -2,8 +2,10 @@ package com.dws.challenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(proxyBeanMethods = false)
+@EnableScheduling
 public class ChallengeApplication {
 
 	public static void main(String[] args) {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.concurrent.Semaphore;
 
 import lombok.*;
@@ -11,33 +12,97 @@ import lombok.*;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 
 @Data
 public class Account {
 
+  public static final String DEFAULT_CURRENCY = "EUR";
+
   @NotNull
   @NotEmpty
   private final String accountId;
 
   @NotNull
   @DecimalMin(value = "0.0", message = "Initial balance must be positive.")
-  private BigDecimal balance;
+  private volatile BigDecimal balance;
+
+  @NotNull
+  @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code.")
+  private final String currency;
+
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private volatile AccountStatus status = AccountStatus.ACTIVE;
+
+  @JsonIgnore
+  private volatile Instant closedAt;
 
   @JsonIgnore
   @EqualsAndHashCode.Exclude
   @Getter(AccessLevel.PRIVATE)
   private final Semaphore lock = new Semaphore(1);
 
+  /**
+   * Balance before the first update of {@link #snapshotEpoch}, see {@link #getBalanceAt(long)}.
+   */
+  @JsonIgnore
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile BigDecimal snapshotBalance;
+
+  @JsonIgnore
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile long snapshotEpoch;
+
   public Account(String accountId) {
-    this.accountId = accountId;
-    this.balance = BigDecimal.ZERO;
+    this(accountId, BigDecimal.ZERO);
+  }
+
+  public Account(String accountId, BigDecimal balance) {
+    this(accountId, balance, DEFAULT_CURRENCY);
   }
 
   @JsonCreator
   public Account(@JsonProperty("accountId") String accountId,
-    @JsonProperty("balance") BigDecimal balance) {
+    @JsonProperty("balance") BigDecimal balance,
+    @JsonProperty("currency") String currency) {
     this.accountId = accountId;
     this.balance = balance;
+    this.currency = currency == null ? DEFAULT_CURRENCY : currency;
+  }
+
+  /**
+   * Updates the balance within a mutation epoch of {@code BalanceMutationTracker}, keeping the balance the account
+   * had when the epoch started. Must be called under the account lock.
+   */
+  public void updateBalance(BigDecimal newBalance, long epoch) {
+    if (snapshotEpoch != epoch) {
+      snapshotBalance = balance;
+      snapshotEpoch = epoch;
+    }
+    balance = newBalance;
+  }
+
+  /**
+   * Marks the account as created within {@code epoch}, so it has no balance as of the start of the epoch.
+   */
+  public void markCreated(long epoch) {
+    snapshotBalance = BigDecimal.ZERO;
+    snapshotEpoch = epoch;
+  }
+
+  /**
+   * @return balance as of the start of {@code epoch}, valid once no mutation of an earlier epoch is in progress
+   */
+  public BigDecimal getBalanceAt(long epoch) {
+    // read before the epoch: if the epoch does not match yet, the balance was not updated within it either
+    var current = balance;
+    return snapshotEpoch == epoch ? snapshotBalance : current;
   }
 
   @SneakyThrows
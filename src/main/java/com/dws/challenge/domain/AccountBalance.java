@@ -0,0 +1,18 @@
+package com.dws.challenge.domain;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of an account at the moment it was read by a query.
+ */
+@Data
+public class AccountBalance {
+  private final String accountId;
+  private final BigDecimal balance;
+
+  public static AccountBalance of(Account account) {
+    return new AccountBalance(account.getAccountId(), account.getBalance());
+  }
+}
@@ -0,0 +1,7 @@
+package com.dws.challenge.domain;
+
+public enum AccountStatus {
+  ACTIVE,
+  FROZEN,
+  CLOSED
+}
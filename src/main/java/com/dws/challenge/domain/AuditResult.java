@@ -0,0 +1,49 @@
+package com.dws.challenge.domain;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+public class AuditResult {
+
+  public static final AuditResult INCONCLUSIVE = new AuditResult(false, Map.of(), Map.of());
+
+  /**
+   * {@code false} if no snapshot of the balances could be taken, balances are empty then.
+   */
+  private final boolean consistent;
+  private final Map<String, BigDecimal> expectedBalances;
+  private final Map<String, BigDecimal> actualBalances;
+
+  public static AuditResult consistent(Map<String, BigDecimal> expectedBalances, Map<String, BigDecimal> actualBalances) {
+    return new AuditResult(true, expectedBalances, actualBalances);
+  }
+
+  /**
+   * @return difference between actual and expected total balance of every currency where they don't match
+   */
+  public Map<String, BigDecimal> getDrift() {
+    var currencies = new HashSet<>(expectedBalances.keySet());
+    currencies.addAll(actualBalances.keySet());
+    var drift = new TreeMap<String, BigDecimal>();
+    for (var currency : currencies) {
+      var difference = actualBalances.getOrDefault(currency, BigDecimal.ZERO)
+        .subtract(expectedBalances.getOrDefault(currency, BigDecimal.ZERO));
+      if (difference.signum() != 0) {
+        drift.put(currency, difference);
+      }
+    }
+    return drift;
+  }
+
+  /**
+   * @return {@code false} for an inconclusive audit, which can't tell whether money was conserved
+   */
+  public boolean isMoneyConserved() {
+    return consistent && getDrift().isEmpty();
+  }
+}
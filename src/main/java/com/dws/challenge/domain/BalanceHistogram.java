@@ -0,0 +1,19 @@
+package com.dws.challenge.domain;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class BalanceHistogram {
+  private final String currency;
+  private final BigDecimal bucketWidth;
+  /**
+   * Number of accounts with balance in {@code [i * bucketWidth, (i + 1) * bucketWidth)}.
+   */
+  private final long[] counts;
+  /**
+   * Number of accounts with balance beyond the last bucket.
+   */
+  private final long overflow;
+}
@@ -0,0 +1,29 @@
+package com.dws.challenge.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+public enum Recurrence {
+  NONE,
+  DAILY,
+  WEEKLY,
+  MONTHLY;
+
+  /**
+   * Occurrences are always computed from the first one, so that e.g. a monthly transfer starting on the 31st
+   * is executed on the last day of shorter months and on the 31st again afterwards.
+   */
+  public Instant occurrence(Instant first, int index) {
+    switch (this) {
+      case DAILY:
+        return first.plus(Duration.ofDays(index));
+      case WEEKLY:
+        return first.plus(Duration.ofDays(7L * index));
+      case MONTHLY:
+        return first.atZone(ZoneOffset.UTC).plusMonths(index).toInstant();
+      default:
+        return first;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.dws.challenge.domain;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+public class ScheduledTransfer {
+  private final long id;
+  private final String fromAccountId;
+  private final String toAccountId;
+  private final BigDecimal amount;
+  private final Instant firstExecution;
+  private final Recurrence recurrence;
+
+  private volatile int executedOccurrences;
+  private volatile TransferStatus lastStatus;
+
+  public Instant getNextExecution() {
+    return recurrence.occurrence(firstExecution, executedOccurrences);
+  }
+
+  public boolean isCompleted() {
+    return recurrence == Recurrence.NONE && executedOccurrences > 0;
+  }
+
+  public TransferRequest toTransferRequest() {
+    return new TransferRequest(fromAccountId, toAccountId, amount);
+  }
+}
@@ -0,0 +1,49 @@
+package com.dws.challenge.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+public class ScheduledTransferRequest {
+  @NotNull
+  @NotEmpty
+  private final String fromAccountId;
+
+  @NotNull
+  @NotEmpty
+  private final String toAccountId;
+
+  @NotNull
+  @DecimalMin(value = "0.0", message = "Transferred amount must be positive.", inclusive = false)
+  private final BigDecimal amount;
+
+  @NotNull
+  @FutureOrPresent(message = "Execution time must not be in the past.")
+  private final Instant executeAt;
+
+  private final Recurrence recurrence;
+
+  @JsonCreator
+  public ScheduledTransferRequest(
+          @JsonProperty("fromAccountId") String fromAccountId,
+          @JsonProperty("toAccountId") String toAccountId,
+          @JsonProperty("amount") BigDecimal amount,
+          @JsonProperty("executeAt") Instant executeAt,
+          @JsonProperty("recurrence") Recurrence recurrence
+  ) {
+    this.fromAccountId = fromAccountId;
+    this.toAccountId = toAccountId;
+    this.amount = amount;
+    this.executeAt = executeAt;
+    this.recurrence = recurrence == null ? Recurrence.NONE : recurrence;
+  }
+
+}
@@ -2,7 +2,13 @@ package com.dws.challenge.domain;
 
 public enum TransferStatus {
   SUCCESS,
+  SAME_ACCOUNT,
   FROM_ACC_MISSING,
   TO_ACC_MISSING,
-  LIMIT_EXCEEDED
+  FROM_ACC_FROZEN,
+  TO_ACC_FROZEN,
+  LIMIT_EXCEEDED,
+  UNSUPPORTED_CURRENCY,
+  AMOUNT_TOO_SMALL,
+  SUSPECTED_FRAUD
 }
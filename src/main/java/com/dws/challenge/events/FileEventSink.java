@@ -0,0 +1,83 @@
+package com.dws.challenge.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Appends transfer events to a file as JSON lines for external consumers to tail. Output is flushed at the end
+ * of each batch, so a burst of transfers costs a single write.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.events.file-sink.enabled", havingValue = "true")
+public class FileEventSink implements TransferEventSubscriber {
+
+  private final Writer writer;
+  private final OverflowPolicy overflowPolicy;
+  private final StringBuilder line = new StringBuilder(256);
+
+  public FileEventSink(@Value("${challenge.events.file-sink.file:transfer-events.jsonl}") String file,
+                       @Value("${challenge.events.file-sink.overflow-policy:DROP}") OverflowPolicy overflowPolicy) throws IOException {
+    this.writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  @Override
+  public String getName() {
+    return "file-sink";
+  }
+
+  @Override
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  @Override
+  public void onEvent(TransferEvent event, boolean endOfBatch) throws IOException {
+    line.setLength(0);
+    line.append("{\"sequence\":").append(event.getSequence())
+      .append(",\"timestamp\":\"").append(Instant.ofEpochMilli(event.getTimestamp())).append('"')
+      .append(",\"from\":");
+    appendString(event.getFrom().getAccountId());
+    line.append(",\"to\":");
+    appendString(event.getTo().getAccountId());
+    line
+      .append(",\"debited\":\"").append(event.getDebitedAmount().toPlainString()).append('"')
+      .append(",\"debitedCurrency\":\"").append(event.getFrom().getCurrency()).append('"')
+      .append(",\"credited\":\"").append(event.getCreditedAmount().toPlainString()).append('"')
+      .append(",\"creditedCurrency\":\"").append(event.getTo().getCurrency()).append("\"}\n");
+    writer.append(line);
+    if (endOfBatch) {
+      writer.flush();
+    }
+  }
+
+  private void appendString(String value) {
+    line.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        line.append('\\').append(c);
+      } else if (c < ' ') {
+        line.append(String.format("\\u%04x", (int) c));
+      } else {
+        line.append(c);
+      }
+    }
+    line.append('"');
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    writer.close();
+  }
+}
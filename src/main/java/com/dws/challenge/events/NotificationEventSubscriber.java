@@ -0,0 +1,43 @@
+package com.dws.challenge.events;
+
+import com.dws.challenge.service.NotificationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notifies owners of both accounts about a transfer, off the thread that executed it. Events are published while
+ * the transfer still holds the account locks, so by default a notifier falling a whole ring behind skips events
+ * rather than stalling transfers; {@code BLOCK} trades that for never missing a notification.
+ */
+@Component
+public class NotificationEventSubscriber implements TransferEventSubscriber {
+
+  private final NotificationService notificationService;
+  private final OverflowPolicy overflowPolicy;
+
+  public NotificationEventSubscriber(NotificationService notificationService,
+                                     @Value("${challenge.events.notification.overflow-policy:DROP}") OverflowPolicy overflowPolicy) {
+    this.notificationService = notificationService;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  @Override
+  public String getName() {
+    return "notification";
+  }
+
+  @Override
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  @Override
+  public void onEvent(TransferEvent event, boolean endOfBatch) {
+    var from = event.getFrom();
+    var to = event.getTo();
+    notificationService.notifyAboutTransfer(from, "Transferred " + event.getDebitedAmount() + " " + from.getCurrency()
+      + " from your account to " + to.getAccountId());
+    notificationService.notifyAboutTransfer(to, "Transferred " + event.getCreditedAmount() + " " + to.getCurrency()
+      + " into your account from " + from.getAccountId());
+  }
+}
@@ -0,0 +1,15 @@
+package com.dws.challenge.events;
+
+/**
+ * What happens when a subscriber falls a whole ring buffer behind the publishers.
+ */
+public enum OverflowPolicy {
+  /**
+   * Publishers wait for the subscriber, slowing transfers down to its pace.
+   */
+  BLOCK,
+  /**
+   * Publishers overwrite events the subscriber has not seen yet, the subscriber skips them.
+   */
+  DROP
+}
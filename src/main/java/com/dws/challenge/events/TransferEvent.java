@@ -0,0 +1,39 @@
+package com.dws.challenge.events;
+
+import com.dws.challenge.domain.Account;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Committed transfer. Instances are preallocated slots of the {@link TransferEventBus} ring and are overwritten
+ * once all subscribers have moved past them.
+ */
+@Getter
+public class TransferEvent {
+  private long sequence;
+  private long timestamp;
+  private Account from;
+  private Account to;
+  /**
+   * Amount taken from the source account in its currency.
+   */
+  private BigDecimal debitedAmount;
+  /**
+   * Amount put into the target account in its currency.
+   */
+  private BigDecimal creditedAmount;
+
+  void set(long sequence, long timestamp, Account from, Account to, BigDecimal debitedAmount, BigDecimal creditedAmount) {
+    this.sequence = sequence;
+    this.timestamp = timestamp;
+    this.from = from;
+    this.to = to;
+    this.debitedAmount = debitedAmount;
+    this.creditedAmount = creditedAmount;
+  }
+
+  void copyFrom(TransferEvent other) {
+    set(other.sequence, other.timestamp, other.from, other.to, other.debitedAmount, other.creditedAmount);
+  }
+}
@@ -0,0 +1,267 @@
+package com.dws.challenge.events;
+
+import com.dws.challenge.domain.Account;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer multi-consumer ring of committed transfers in the spirit of the LMAX Disruptor.
+ * Publishers claim a sequence with a single atomic increment, fill the preallocated slot and mark it published.
+ * Every subscriber runs on its own thread and tracks its own sequence, a slot is reused only when all
+ * {@link OverflowPolicy#BLOCK blocking} subscribers have moved past it, {@link OverflowPolicy#DROP dropping}
+ * subscribers lagging a whole ring behind are moved forward by the publisher instead. Regardless of subscribers a
+ * slot is reused only after the publisher of the previous lap has marked it published.
+ * <p>
+ * An idle subscriber spins briefly and then parks until a publisher unparks it.
+ */
+@Slf4j
+@Component
+public class TransferEventBus {
+
+  private static final int SPINS = 100;
+  private static final int YIELDS = 100;
+  private static final long MIN_BACKOFF_NANOS = 1_000;
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  /**
+   * Upper bound of a subscriber's park, only matters if the publisher's unpark was lost.
+   */
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final int mask;
+  private final TransferEvent[] entries;
+  /**
+   * Sequence last published into each slot, lets subscribers tell a filled slot from one still being written.
+   * Starts with the sequences of a virtual lap before the first one.
+   */
+  private final AtomicLongArray published;
+  private final AtomicLong claimed = new AtomicLong(-1);
+  private final List<Subscription> subscriptions = new ArrayList<>();
+  /**
+   * Lower bound of all subscriber sequences, spares publishers reading them while the ring has room.
+   */
+  private volatile long gatingSequence = -1;
+  private volatile boolean running = true;
+
+  public TransferEventBus(@Value("${challenge.events.buffer-size:8192}") int bufferSize,
+                          List<TransferEventSubscriber> subscribers,
+                          MeterRegistry meterRegistry) {
+    if (Integer.bitCount(bufferSize) != 1) {
+      throw new IllegalArgumentException("Event buffer size must be a power of two, got " + bufferSize);
+    }
+    this.mask = bufferSize - 1;
+    this.entries = new TransferEvent[bufferSize];
+    this.published = new AtomicLongArray(bufferSize);
+    for (int i = 0; i < bufferSize; i++) {
+      entries[i] = new TransferEvent();
+      published.set(i, i - bufferSize);
+    }
+    for (var subscriber : subscribers) {
+      var subscription = new Subscription(subscriber);
+      subscriptions.add(subscription);
+      Gauge.builder("transfers.events.lag", subscription, s -> claimed.get() - s.sequence.get())
+        .description("Events published but not yet consumed by the subscriber")
+        .tag("subscriber", subscriber.getName())
+        .register(meterRegistry);
+      FunctionCounter.builder("transfers.events.dropped", subscription.dropped, LongAdder::sum)
+        .tag("subscriber", subscriber.getName())
+        .register(meterRegistry);
+      FunctionCounter.builder("transfers.events.blocked", subscription.blocked, LongAdder::sum)
+        .description("Publishes which had to wait for the subscriber")
+        .tag("subscriber", subscriber.getName())
+        .register(meterRegistry);
+    }
+    subscriptions.forEach(subscription -> subscription.thread.start());
+  }
+
+  public void publish(Account from, Account to, BigDecimal debitedAmount, BigDecimal creditedAmount) {
+    long sequence = claimed.incrementAndGet();
+    awaitCapacity(sequence);
+    int index = index(sequence);
+    // the publisher of the previous lap may still be writing the slot
+    long previousLap = sequence - entries.length;
+    for (int idleLoops = 0; published.get(index) != previousLap; ) {
+      idleLoops = backOff(idleLoops);
+    }
+    entries[index].set(sequence, System.currentTimeMillis(), from, to, debitedAmount, creditedAmount);
+    published.set(index, sequence);
+    for (var subscription : subscriptions) {
+      if (subscription.parked) {
+        LockSupport.unpark(subscription.thread);
+      }
+    }
+  }
+
+  private void awaitCapacity(long sequence) {
+    long wrapPoint = sequence - entries.length;
+    if (wrapPoint <= gatingSequence) {
+      return;
+    }
+    long minimum = Long.MAX_VALUE;
+    for (var subscription : subscriptions) {
+      minimum = Math.min(minimum, subscription.awaitConsumed(wrapPoint));
+    }
+    gatingSequence = minimum;
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    running = false;
+    for (var subscription : subscriptions) {
+      LockSupport.unpark(subscription.thread);
+      subscription.thread.join(1000);
+      if (subscription.thread.isAlive()) {
+        log.warn("Subscriber {} did not drain transfer events in time", subscription.subscriber.getName());
+      }
+    }
+  }
+
+  private int index(long sequence) {
+    return (int) sequence & mask;
+  }
+
+  /**
+   * Wait of a publisher for a subscriber or another publisher: spins first, then yields to let a preempted thread
+   * finish, then parks for exponentially growing periods of up to {@link #MAX_BACKOFF_NANOS}.
+   */
+  private static int backOff(int idleLoops) {
+    if (idleLoops < SPINS) {
+      Thread.onSpinWait();
+    } else if (idleLoops < SPINS + YIELDS) {
+      Thread.yield();
+    } else {
+      int doublings = Math.min(20, idleLoops - SPINS - YIELDS);
+      LockSupport.parkNanos(Math.min(MAX_BACKOFF_NANOS, MIN_BACKOFF_NANOS << doublings));
+    }
+    return idleLoops + 1;
+  }
+
+  private final class Subscription implements Runnable {
+
+    private final TransferEventSubscriber subscriber;
+    private final boolean dropping;
+    /**
+     * Last sequence consumed by the subscriber or skipped on its behalf.
+     */
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    /**
+     * Dropping subscribers read slots which may be overwritten concurrently, so the event is copied first and
+     * only delivered if the publisher did not skip it in the meantime.
+     */
+    private final TransferEvent copy = new TransferEvent();
+    private final Thread thread;
+    /**
+     * Set before the subscriber parks, so that the next publisher unparks it.
+     */
+    private volatile boolean parked;
+
+    private Subscription(TransferEventSubscriber subscriber) {
+      this.subscriber = subscriber;
+      this.dropping = subscriber.getOverflowPolicy() == OverflowPolicy.DROP;
+      this.thread = new Thread(this, "transfer-events-" + subscriber.getName());
+      this.thread.setDaemon(true);
+    }
+
+    /**
+     * Called by a publisher which is about to overwrite the slot of {@code wrapPoint}.
+     *
+     * @return the subscriber's sequence afterwards
+     */
+    private long awaitConsumed(long wrapPoint) {
+      long current = sequence.get();
+      if (current >= wrapPoint) {
+        return current;
+      }
+      if (dropping) {
+        while (current < wrapPoint) {
+          if (sequence.compareAndSet(current, wrapPoint)) {
+            dropped.add(wrapPoint - current);
+            return wrapPoint;
+          }
+          current = sequence.get();
+        }
+        return current;
+      }
+      blocked.increment();
+      int idleLoops = 0;
+      while ((current = sequence.get()) < wrapPoint && thread.isAlive()) {
+        idleLoops = backOff(idleLoops);
+      }
+      return current;
+    }
+
+    @Override
+    public void run() {
+      int idleLoops = 0;
+      while (true) {
+        long current = sequence.get();
+        long next = current + 1;
+        long available = published.get(index(next));
+        if (available != next) {
+          if (available > next) {
+            // overwritten, the publisher has already moved the sequence past it
+            continue;
+          }
+          if (!running && next > claimed.get()) {
+            return;
+          }
+          idleLoops = idle(idleLoops, next);
+          continue;
+        }
+        idleLoops = 0;
+        if (dropping) {
+          copy.copyFrom(entries[index(next)]);
+          if (sequence.compareAndSet(current, next)) {
+            deliver(copy, published.get(index(next + 1)) != next + 1);
+          }
+        } else {
+          long last = next;
+          while (last - next < mask && published.get(index(last + 1)) == last + 1) {
+            last++;
+          }
+          for (long position = next; position <= last; position++) {
+            deliver(entries[index(position)], position == last);
+          }
+          sequence.lazySet(last);
+        }
+      }
+    }
+
+    private int idle(int idleLoops, long next) {
+      if (idleLoops < SPINS) {
+        Thread.onSpinWait();
+        return idleLoops + 1;
+      }
+      parked = true;
+      // re-checked after announcing the park: either this sees the event or its publisher sees the flag
+      if (published.get(index(next)) < next && running) {
+        LockSupport.parkNanos(this, MAX_PARK_NANOS);
+      }
+      parked = false;
+      return idleLoops;
+    }
+
+    private void deliver(TransferEvent event, boolean endOfBatch) {
+      try {
+        subscriber.onEvent(event, endOfBatch);
+      } catch (Exception e) {
+        log.warn("Subscriber {} failed to handle transfer event {}", subscriber.getName(), event.getSequence(), e);
+      }
+    }
+  }
+}
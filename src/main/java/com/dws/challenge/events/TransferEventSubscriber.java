@@ -0,0 +1,19 @@
+package com.dws.challenge.events;
+
+public interface TransferEventSubscriber {
+
+  /**
+   * Unique name of the subscriber used in its thread name and metric tags.
+   */
+  String getName();
+
+  OverflowPolicy getOverflowPolicy();
+
+  /**
+   * Called on the subscriber's own thread in sequence order. The event instance is reused and must not be
+   * retained after the method returns.
+   *
+   * @param endOfBatch whether no further events are available right now, e.g. to flush buffered output
+   */
+  void onEvent(TransferEvent event, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,8 @@
+package com.dws.challenge.exception;
+
+public class AccountStateException extends RuntimeException {
+
+  public AccountStateException(String message) {
+    super(message);
+  }
+}
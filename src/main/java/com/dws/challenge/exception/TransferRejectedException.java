@@ -0,0 +1,15 @@
+package com.dws.challenge.exception;
+
+import com.dws.challenge.domain.TransferStatus;
+import lombok.Getter;
+
+@Getter
+public class TransferRejectedException extends RuntimeException {
+
+  private final TransferStatus status;
+
+  public TransferRejectedException(TransferStatus status) {
+    super("Transfer rejected: " + status);
+    this.status = status;
+  }
+}
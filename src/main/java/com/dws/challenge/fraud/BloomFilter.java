@@ -0,0 +1,73 @@
+package com.dws.challenge.fraud;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size set of 64-bit keys without false negatives. The number of bits is rounded up to a power of two.
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long mask;
+  private final int hashes;
+  private final AtomicLong insertions = new AtomicLong();
+
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    double ln2 = Math.log(2);
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+    bits = Math.max(Long.SIZE, Long.highestOneBit(bits - 1) << 1);
+    if (bits / Long.SIZE > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Bloom filter for " + expectedInsertions + " keys is too large");
+    }
+    this.words = new AtomicLongArray((int) (bits / Long.SIZE));
+    this.mask = bits - 1;
+    this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / expectedInsertions * ln2)));
+  }
+
+  public boolean mightContain(long key) {
+    long h1 = key;
+    long h2 = (key >>> 32 | key << 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      long bit = (h1 + i * h2) & mask;
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void add(long key) {
+    long h1 = key;
+    long h2 = (key >>> 32 | key << 32) | 1;
+    boolean changed = false;
+    for (int i = 0; i < hashes; i++) {
+      long bit = (h1 + i * h2) & mask;
+      int index = (int) (bit >>> 6);
+      long word;
+      while (((word = words.get(index)) & (1L << bit)) == 0) {
+        if (words.compareAndSet(index, word, word | (1L << bit))) {
+          changed = true;
+          break;
+        }
+      }
+    }
+    if (changed) {
+      insertions.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return approximate number of distinct keys added since the filter was created or cleared
+   */
+  public long getInsertions() {
+    return insertions.get();
+  }
+
+  void clear() {
+    for (int i = 0; i < words.length(); i++) {
+      words.lazySet(i, 0);
+    }
+    insertions.set(0);
+  }
+}
@@ -0,0 +1,50 @@
+package com.dws.challenge.fraud;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Fixed-size frequency table of 64-bit keys. Each key is counted in one cell of every row and its estimate is
+ * the smallest of these cells, so collisions can only make it overestimate.
+ */
+public class CountMinSketch {
+
+  private final int depth;
+  private final int mask;
+  private final int width;
+  private final AtomicIntegerArray counts;
+
+  public CountMinSketch(int width, int depth) {
+    if (Integer.bitCount(width) != 1 || depth < 1) {
+      throw new IllegalArgumentException("Sketch width must be a power of two and depth positive, got "
+        + width + "x" + depth);
+    }
+    this.depth = depth;
+    this.mask = width - 1;
+    this.width = width;
+    this.counts = new AtomicIntegerArray(width * depth);
+  }
+
+  public void add(long key) {
+    int h1 = (int) key;
+    int h2 = (int) (key >>> 32) | 1;
+    for (int row = 0; row < depth; row++) {
+      counts.incrementAndGet(row * width + ((h1 + row * h2) & mask));
+    }
+  }
+
+  public int estimate(long key) {
+    int h1 = (int) key;
+    int h2 = (int) (key >>> 32) | 1;
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counts.get(row * width + ((h1 + row * h2) & mask)));
+    }
+    return estimate;
+  }
+
+  void clear() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.lazySet(i, 0);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.dws.challenge.fraud;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counts keys over a sliding time window split into buckets, each bucket being a {@link CountMinSketch}. When time
+ * moves on, the bucket of the oldest period is replaced with a cleared spare sketch and the retired one is cleared
+ * by {@link #clearRetired()}, which is meant to be called periodically off the transfer path. Every bucket has one
+ * spare preallocated, so {@link #add} never allocates: when the spares are used up before the retired sketches are
+ * cleared, a retired sketch is cleared in place by the rotating thread. Memory does not depend on the number of keys
+ * or on the traffic.
+ */
+public class SlidingWindowSketch {
+
+  private final long bucketMillis;
+  private final int width;
+  private final int depth;
+  private final AtomicReferenceArray<Bucket> buckets;
+  private final Queue<CountMinSketch> spares = new ConcurrentLinkedQueue<>();
+  private final Queue<CountMinSketch> retired = new ConcurrentLinkedQueue<>();
+
+  public SlidingWindowSketch(long windowMillis, int buckets, int width, int depth) {
+    if (buckets < 1 || windowMillis < buckets) {
+      throw new IllegalArgumentException("Window of " + windowMillis + " ms can not be split into " + buckets + " buckets");
+    }
+    this.bucketMillis = windowMillis / buckets;
+    this.width = width;
+    this.depth = depth;
+    this.buckets = new AtomicReferenceArray<>(buckets);
+    for (int i = 0; i < buckets; i++) {
+      this.buckets.set(i, new Bucket(Long.MIN_VALUE, new CountMinSketch(width, depth)));
+    }
+    for (int i = 0; i < buckets; i++) {
+      spares.add(new CountMinSketch(width, depth));
+    }
+  }
+
+  public void add(long key, long nowMillis) {
+    long period = nowMillis / bucketMillis;
+    int index = (int) (period % buckets.length());
+    var bucket = buckets.get(index);
+    while (bucket.period < period) {
+      var spare = spare();
+      if (spare == null) {
+        // every sketch is held by a concurrent rotation which is about to hand it back
+        Thread.onSpinWait();
+        bucket = buckets.get(index);
+        continue;
+      }
+      var next = new Bucket(period, spare);
+      if (buckets.compareAndSet(index, bucket, next)) {
+        retired.add(bucket.sketch);
+        bucket = next;
+      } else {
+        spares.add(spare);
+        bucket = buckets.get(index);
+      }
+    }
+    bucket.sketch.add(key);
+  }
+
+  /**
+   * @return upper bound of the number of times {@code key} was added within the window ending at {@code nowMillis}
+   */
+  public long estimate(long key, long nowMillis) {
+    long oldestPeriod = nowMillis / bucketMillis - buckets.length();
+    long estimate = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      var bucket = buckets.get(i);
+      if (bucket.period > oldestPeriod) {
+        estimate += bucket.sketch.estimate(key);
+      }
+    }
+    return estimate;
+  }
+
+  /**
+   * Clears sketches retired since the last call and hands them back as spares for the next rotations.
+   */
+  public void clearRetired() {
+    CountMinSketch sketch;
+    while ((sketch = retired.poll()) != null) {
+      sketch.clear();
+      spares.add(sketch);
+    }
+  }
+
+  private CountMinSketch spare() {
+    var spare = spares.poll();
+    if (spare == null) {
+      spare = retired.poll();
+      if (spare != null) {
+        spare.clear();
+      }
+    }
+    return spare;
+  }
+
+  /**
+   * Sketch of a bucket together with the period it counts, so an increment never lands in a sketch which has
+   * already been rotated out for a later period.
+   */
+  private static final class Bucket {
+    private final long period;
+    private final CountMinSketch sketch;
+
+    private Bucket(long period, CountMinSketch sketch) {
+      this.period = period;
+      this.sketch = sketch;
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.dws.challenge.fraud;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.service.FxRateService;
+import com.dws.challenge.service.TransferCheck;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Flags transfers matching simple fraud patterns:
+ * <ul>
+ *   <li>too many transfers between the same accounts within the window</li>
+ *   <li>a large amount sent to an account the sender has not paid before</li>
+ *   <li>many small transfers fanning out from one account to accounts it has not paid before</li>
+ * </ul>
+ * Frequencies are kept in {@link SlidingWindowSketch}es and pairs seen before in two {@link BloomFilter}
+ * generations, the older one is retired and a cleared spare takes over when the current one reaches its capacity.
+ * Retired sketch buckets and filters are cleared by {@link #clearRetiredBuckets()} off the transfer path. Memory is
+ * allocated upfront and does not grow with the number of accounts. Amount thresholds are in {@link Account#DEFAULT_CURRENCY}, amounts
+ * in other currencies are converted with the current exchange rates first.
+ * <p>
+ * Unless {@code challenge.fraud.monitor-only} is set to {@code false}, matches are only counted and not rejected.
+ */
+@Component
+public class VelocityCheck implements TransferCheck {
+
+  private static final String REFERENCE_CURRENCY = Account.DEFAULT_CURRENCY;
+  private static final long SOURCE_SEED = 0x9E3779B97F4A7C15L;
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+  private static final double KNOWN_PAIRS_FALSE_POSITIVE_RATE = 0.01;
+
+  private final boolean enabled;
+  private final boolean monitorOnly;
+  private final long windowMillis;
+  private final int windowBuckets;
+  private final int sketchWidth;
+  private final int sketchDepth;
+  private final long maxPairTransfers;
+  private final BigDecimal smallAmount;
+  private final long maxSmallTransfers;
+  private final BigDecimal newPairMaxAmount;
+  private final long knownPairsCapacity;
+  private final FxRateService fxRateService;
+
+  private final SlidingWindowSketch pairTransfers;
+  /**
+   * Small transfers to accounts not paid before, by sending account.
+   */
+  private final SlidingWindowSketch smallTransfersToNewPairs;
+  private volatile BloomFilter knownPairs;
+  private volatile BloomFilter previousKnownPairs;
+  /**
+   * Cleared filter the next rotation switches to, {@code null} until the retired one has been cleared.
+   */
+  private volatile BloomFilter spareKnownPairs;
+  private volatile BloomFilter retiredKnownPairs;
+
+  private final Counter pairFrequencyFlagged;
+  private final Counter newPairAmountFlagged;
+  private final Counter fanOutFlagged;
+
+  public VelocityCheck(@Value("${challenge.fraud.enabled:true}") boolean enabled,
+                       @Value("${challenge.fraud.monitor-only:true}") boolean monitorOnly,
+                       @Value("${challenge.fraud.window-ms:60000}") long windowMillis,
+                       @Value("${challenge.fraud.window-buckets:6}") int windowBuckets,
+                       @Value("${challenge.fraud.sketch-width:8192}") int sketchWidth,
+                       @Value("${challenge.fraud.sketch-depth:4}") int sketchDepth,
+                       @Value("${challenge.fraud.max-pair-transfers:100}") long maxPairTransfers,
+                       @Value("${challenge.fraud.small-amount:10}") BigDecimal smallAmount,
+                       @Value("${challenge.fraud.max-small-transfers:50}") long maxSmallTransfers,
+                       @Value("${challenge.fraud.new-pair-max-amount:10000}") BigDecimal newPairMaxAmount,
+                       @Value("${challenge.fraud.known-pairs-capacity:1000000}") long knownPairsCapacity,
+                       FxRateService fxRateService,
+                       MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.monitorOnly = monitorOnly;
+    this.windowMillis = windowMillis;
+    this.windowBuckets = windowBuckets;
+    this.sketchWidth = sketchWidth;
+    this.sketchDepth = sketchDepth;
+    this.maxPairTransfers = maxPairTransfers;
+    this.smallAmount = smallAmount;
+    this.maxSmallTransfers = maxSmallTransfers;
+    this.newPairMaxAmount = newPairMaxAmount;
+    this.knownPairsCapacity = knownPairsCapacity;
+    this.fxRateService = fxRateService;
+    if (enabled) {
+      this.pairTransfers = new SlidingWindowSketch(windowMillis, windowBuckets, sketchWidth, sketchDepth);
+      this.smallTransfersToNewPairs = new SlidingWindowSketch(windowMillis, windowBuckets, sketchWidth, sketchDepth);
+      this.knownPairs = new BloomFilter(knownPairsCapacity, KNOWN_PAIRS_FALSE_POSITIVE_RATE);
+      this.previousKnownPairs = new BloomFilter(knownPairsCapacity, KNOWN_PAIRS_FALSE_POSITIVE_RATE);
+      this.spareKnownPairs = new BloomFilter(knownPairsCapacity, KNOWN_PAIRS_FALSE_POSITIVE_RATE);
+    } else {
+      this.pairTransfers = null;
+      this.smallTransfersToNewPairs = null;
+    }
+    this.pairFrequencyFlagged = flaggedCounter(meterRegistry, "pair-frequency");
+    this.newPairAmountFlagged = flaggedCounter(meterRegistry, "new-pair-amount");
+    this.fanOutFlagged = flaggedCounter(meterRegistry, "fan-out");
+  }
+
+  private static Counter flaggedCounter(MeterRegistry meterRegistry, String rule) {
+    return Counter.builder("transfers.fraud.flagged")
+      .description("Transfers matching a fraud pattern, rejected unless in monitor-only mode")
+      .tag("rule", rule)
+      .register(meterRegistry);
+  }
+
+  @Override
+  public TransferStatus check(Account from, Account to, BigDecimal amount) {
+    if (!enabled) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    var fromId = from.getAccountId();
+    // the length keeps the boundary between the ids, so that "ab" -> "c" and "a" -> "bc" are different pairs
+    long fromHash = fnv(FNV_OFFSET_BASIS ^ fromId.length(), fromId);
+    long pair = mix(fnv(fromHash, to.getAccountId()));
+    long source = mix(fromHash ^ SOURCE_SEED);
+    boolean knownPair = knownPairs.mightContain(pair) || previousKnownPairs.mightContain(pair);
+    var referenceAmount = toReferenceCurrency(amount, from.getCurrency());
+    boolean small = referenceAmount.compareTo(smallAmount) <= 0;
+
+    Counter flagged = null;
+    if (pairTransfers.estimate(pair, now) >= maxPairTransfers) {
+      flagged = pairFrequencyFlagged;
+    } else if (!knownPair && referenceAmount.compareTo(newPairMaxAmount) > 0) {
+      flagged = newPairAmountFlagged;
+    } else if (!knownPair && small && smallTransfersToNewPairs.estimate(source, now) >= maxSmallTransfers) {
+      flagged = fanOutFlagged;
+    }
+    if (flagged != null) {
+      flagged.increment();
+      if (!monitorOnly) {
+        return TransferStatus.SUSPECTED_FRAUD;
+      }
+    }
+
+    pairTransfers.add(pair, now);
+    if (!knownPair) {
+      if (small) {
+        smallTransfersToNewPairs.add(source, now);
+      }
+      rememberPair(pair);
+    }
+    return null;
+  }
+
+  /**
+   * @return check with the same settings but its own sketches, filters and meters, for transfers which must leave
+   * no trace in this one
+   */
+  public VelocityCheck copy() {
+    return new VelocityCheck(enabled, monitorOnly, windowMillis, windowBuckets, sketchWidth, sketchDepth,
+      maxPairTransfers, smallAmount, maxSmallTransfers, newPairMaxAmount, knownPairsCapacity, fxRateService,
+      new SimpleMeterRegistry());
+  }
+
+  /**
+   * Clears the sketch buckets that went out of the window and the retired known pairs filter, so that transfers
+   * rotate to cleared ones.
+   */
+  @Scheduled(fixedDelayString = "${challenge.fraud.clear-interval-ms:1000}")
+  public void clearRetiredBuckets() {
+    if (enabled) {
+      pairTransfers.clearRetired();
+      smallTransfersToNewPairs.clearRetired();
+      var retired = retiredKnownPairs;
+      if (retired != null) {
+        retired.clear();
+        synchronized (this) {
+          retiredKnownPairs = null;
+          spareKnownPairs = retired;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return {@code amount} in the reference currency or as is if there is no rate for its currency
+   */
+  private BigDecimal toReferenceCurrency(BigDecimal amount, String currency) {
+    if (REFERENCE_CURRENCY.equals(currency)) {
+      return amount;
+    }
+    var converted = fxRateService.getRates().convert(amount, currency, REFERENCE_CURRENCY);
+    return converted == null ? amount : converted;
+  }
+
+  private void rememberPair(long pair) {
+    var current = knownPairs;
+    current.add(pair);
+    if (current.getInsertions() >= knownPairsCapacity) {
+      rotateKnownPairs(current);
+    }
+  }
+
+  /**
+   * Switches to the cleared spare filter, the current one keeps filling up until the spare is ready.
+   */
+  private synchronized void rotateKnownPairs(BloomFilter full) {
+    var spare = spareKnownPairs;
+    if (knownPairs != full || spare == null) {
+      return;
+    }
+    retiredKnownPairs = previousKnownPairs;
+    previousKnownPairs = full;
+    knownPairs = spare;
+    spareKnownPairs = null;
+  }
+
+  /**
+   * 64-bit FNV-1a over the characters of {@code id}, continuing from {@code hash}.
+   */
+  private static long fnv(long hash, String id) {
+    for (int i = 0; i < id.length(); i++) {
+      hash ^= id.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /**
+   * Finalizer of MurmurHash3, avalanches the FNV hashes of account ids.
+   */
+  private static long mix(long key) {
+    key ^= key >>> 33;
+    key *= 0xFF51AFD7ED558CCDL;
+    key ^= key >>> 33;
+    key *= 0xC4CEB9FE1A85EC53L;
+    key ^= key >>> 33;
+    return key;
+  }
+}
@@ -1,13 +1,65 @@
 package com.dws.challenge.repository;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountBalance;
+import com.dws.challenge.domain.BalanceHistogram;
 import com.dws.challenge.exception.DuplicateAccountIdException;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
 public interface AccountsRepository {
 
-  void createAccount(Account account) throws DuplicateAccountIdException;
+  /**
+   * @param epoch mutation epoch of {@code BalanceMutationTracker} the account is created within
+   */
+  void createAccount(Account account, long epoch) throws DuplicateAccountIdException;
 
   Account getAccount(String accountId);
 
   void clearAccounts();
+
+  /**
+   * Removes the account if it is closed.
+   *
+   * @return {@code true} if the account was removed
+   */
+  boolean deleteAccount(String accountId);
+
+  /**
+   * @return ids of removed accounts which were closed before {@code closedBefore}
+   */
+  List<String> purgeClosedAccounts(Instant closedBefore);
+
+  /**
+   * @return sum of balances of all accounts per currency as of the start of {@code epoch}, computed without locking
+   * the accounts
+   */
+  Map<String, BigDecimal> totalBalances(long epoch);
+
+  /**
+   * @return expected value of {@link #totalBalances(long)}: initial balances of all accounts created before
+   * {@code epoch} adjusted by currency conversions made before it
+   */
+  Map<String, BigDecimal> expectedBalances(long epoch);
+
+  void recordConversion(String fromCurrency, BigDecimal debited, String toCurrency, BigDecimal credited, long epoch);
+
+  /**
+   * Queries below scan all accounts in parallel without locking them and skip closed accounts.
+   *
+   * @param min inclusive lower bound or {@code null}
+   * @param max inclusive upper bound or {@code null}
+   * @return up to {@code limit} accounts of {@code currency} with balance within the bounds, in no particular order
+   */
+  List<AccountBalance> findByBalance(String currency, BigDecimal min, BigDecimal max, int limit);
+
+  /**
+   * @return up to {@code count} accounts of {@code currency} with the highest balances, highest first
+   */
+  List<AccountBalance> findTopBalances(String currency, int count);
+
+  BalanceHistogram balanceHistogram(String currency, BigDecimal bucketWidth, int buckets);
 }
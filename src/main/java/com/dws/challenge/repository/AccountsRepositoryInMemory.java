@@ -1,24 +1,47 @@
 package com.dws.challenge.repository;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountBalance;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.domain.BalanceHistogram;
 import com.dws.challenge.exception.DuplicateAccountIdException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class AccountsRepositoryInMemory implements AccountsRepository {
 
-    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    /**
+     * Number of accounts starting from which scans are split into fork-join subtasks.
+     */
+    private static final long PARALLELISM_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ExpectedBalance> expectedBalances = new ConcurrentHashMap<>();
 
     @Override
-    public void createAccount(Account account) throws DuplicateAccountIdException {
+    public void createAccount(Account account, long epoch) throws DuplicateAccountIdException {
+        account.markCreated(epoch);
         Account previousAccount = accounts.putIfAbsent(account.getAccountId(), account);
         if (previousAccount != null) {
             throw new DuplicateAccountIdException(
                     "Account id " + account.getAccountId() + " already exists!");
         }
+        addExpected(account.getCurrency(), account.getBalance(), epoch);
     }
 
     @Override
@@ -29,6 +52,146 @@ public class AccountsRepositoryInMemory implements AccountsRepository {
     @Override
     public void clearAccounts() {
         accounts.clear();
+        expectedBalances.clear();
+    }
+
+    @Override
+    public boolean deleteAccount(String accountId) {
+        Account account = accounts.get(accountId);
+        return account != null && account.getStatus() == AccountStatus.CLOSED && accounts.remove(accountId, account);
+    }
+
+    @Override
+    public List<String> purgeClosedAccounts(Instant closedBefore) {
+        List<String> removed = new ArrayList<>();
+        accounts.forEach(PARALLELISM_THRESHOLD, (accountId, account) -> {
+            if (account.getStatus() == AccountStatus.CLOSED && account.getClosedAt().isBefore(closedBefore)
+                    && accounts.remove(accountId, account)) {
+                synchronized (removed) {
+                    removed.add(accountId);
+                }
+            }
+        });
+        return removed;
+    }
+
+    @Override
+    public Map<String, BigDecimal> totalBalances(long epoch) {
+        return scan().collect(Collectors.groupingBy(Account::getCurrency,
+                Collectors.reducing(BigDecimal.ZERO, account -> account.getBalanceAt(epoch), BigDecimal::add)));
+    }
+
+    @Override
+    public Map<String, BigDecimal> expectedBalances(long epoch) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        expectedBalances.forEach((currency, expected) -> balances.put(currency, expected.at(epoch)));
+        return balances;
+    }
+
+    @Override
+    public void recordConversion(String fromCurrency, BigDecimal debited, String toCurrency, BigDecimal credited,
+                                 long epoch) {
+        addExpected(fromCurrency, debited.negate(), epoch);
+        addExpected(toCurrency, credited, epoch);
+    }
+
+    private void addExpected(String currency, BigDecimal amount, long epoch) {
+        expectedBalances.compute(currency, (key, expected) ->
+                (expected == null ? ExpectedBalance.EMPTY : expected).add(amount, epoch));
+    }
+
+    @Override
+    public List<AccountBalance> findByBalance(String currency, BigDecimal min, BigDecimal max, int limit) {
+        return scanOpen(currency)
+                .map(AccountBalance::of)
+                .filter(account -> (min == null || account.getBalance().compareTo(min) >= 0)
+                        && (max == null || account.getBalance().compareTo(max) <= 0))
+                .unordered()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AccountBalance> findTopBalances(String currency, int count) {
+        Comparator<AccountBalance> byBalance = Comparator.comparing(AccountBalance::getBalance);
+        return scanOpen(currency)
+                .map(AccountBalance::of)
+                .collect(Collector.of(
+                        () -> new PriorityQueue<>(count + 1, byBalance),
+                        (heap, account) -> offer(heap, account, count),
+                        (left, right) -> {
+                            right.forEach(account -> offer(left, account, count));
+                            return left;
+                        },
+                        heap -> {
+                            var top = new ArrayList<>(heap);
+                            top.sort(byBalance.reversed());
+                            return top;
+                        }));
+    }
+
+    @Override
+    public BalanceHistogram balanceHistogram(String currency, BigDecimal bucketWidth, int buckets) {
+        long[] counts = scanOpen(currency)
+                .collect(Collector.of(
+                        () -> new long[buckets + 1],
+                        (histogram, account) -> {
+                            var bucket = account.getBalance().divideToIntegralValue(bucketWidth);
+                            histogram[bucket.compareTo(BigDecimal.valueOf(buckets)) >= 0 ? buckets : Math.max(0, bucket.intValue())]++;
+                        },
+                        (left, right) -> {
+                            for (int i = 0; i < left.length; i++) {
+                                left[i] += right[i];
+                            }
+                            return left;
+                        }));
+        return new BalanceHistogram(currency, bucketWidth, Arrays.copyOf(counts, buckets), counts[buckets]);
+    }
+
+    private static void offer(PriorityQueue<AccountBalance> heap, AccountBalance account, int count) {
+        heap.offer(account);
+        if (heap.size() > count) {
+            heap.poll();
+        }
+    }
+
+    private Stream<Account> scanOpen(String currency) {
+        return scan().filter(account -> account.getCurrency().equals(currency)
+                && account.getStatus() != AccountStatus.CLOSED);
+    }
+
+    private Stream<Account> scan() {
+        var values = accounts.values();
+        return accounts.mappingCount() < PARALLELISM_THRESHOLD ? values.stream() : values.parallelStream();
+    }
+
+    /**
+     * Expected total balance of a currency together with its value before the first change of {@link #epoch}.
+     * Unlike balance updates, which are ordered by the account locks, changes of an earlier epoch may arrive after
+     * those of a later one and then apply to both values.
+     */
+    @RequiredArgsConstructor
+    private static final class ExpectedBalance {
+
+        static final ExpectedBalance EMPTY = new ExpectedBalance(BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+        private final BigDecimal value;
+        private final BigDecimal snapshot;
+        private final long epoch;
+
+        ExpectedBalance add(BigDecimal amount, long mutationEpoch) {
+            if (mutationEpoch > epoch) {
+                return new ExpectedBalance(value.add(amount), value, mutationEpoch);
+            }
+            if (mutationEpoch == epoch) {
+                return new ExpectedBalance(value.add(amount), snapshot, epoch);
+            }
+            return new ExpectedBalance(value.add(amount), snapshot.add(amount), epoch);
+        }
+
+        BigDecimal at(long snapshotEpoch) {
+            return snapshotEpoch == epoch ? snapshot : value;
+        }
     }
 
 }
@@ -0,0 +1,291 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Recurrence;
+import com.dws.challenge.domain.ScheduledTransfer;
+import lombok.Data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Binary snapshot of pending scheduled transfers together with a journal of changes made since the snapshot.
+ * <p>
+ * Every change is appended to the journal and is durable once {@link #sync()} returns. From time to time the
+ * journal is rotated and a snapshot including all rotated journals is written into a temporary file which then
+ * atomically replaces the previous one, so a crash while writing never leaves a truncated snapshot behind.
+ * Journals older than the snapshot are deleted afterwards. Loading reads the snapshot and replays the journals
+ * written after it, a record torn by a crash ends the replay of its journal.
+ */
+public class ScheduledTransferStore implements Closeable {
+
+  private static final int MAGIC = 0x53545246;
+  private static final byte VERSION = 2;
+  private static final String JOURNAL_SUFFIX = ".journal.";
+
+  private static final byte SCHEDULED = 1;
+  private static final byte CLAIMED = 2;
+  private static final byte CANCELLED = 3;
+
+  private final Path path;
+
+  private long generation;
+  private FileChannel journalChannel;
+  private DataOutputStream journal;
+
+  public ScheduledTransferStore(Path path) {
+    this.path = path;
+  }
+
+  /**
+   * Loads the pending transfers and starts a new journal, must be called before any change is appended.
+   */
+  public synchronized Snapshot load() throws IOException {
+    long snapshotGeneration = 0;
+    long lastId = 0;
+    Map<Long, ScheduledTransfer> transfers = new LinkedHashMap<>();
+    if (Files.exists(path)) {
+      try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+        if (in.readInt() != MAGIC) {
+          throw new IOException(path + " is not a scheduled transfer snapshot");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+          throw new IOException(path + " has an unsupported version " + version);
+        }
+        snapshotGeneration = in.readLong();
+        lastId = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          var transfer = readTransfer(in);
+          transfers.put(transfer.getId(), transfer);
+        }
+      }
+    }
+    var journals = journals();
+    for (var entry : journals.entrySet()) {
+      if (entry.getKey() >= snapshotGeneration) {
+        lastId = Math.max(lastId, replay(entry.getValue(), transfers));
+      }
+    }
+    generation = Math.max(snapshotGeneration, journals.isEmpty() ? 0 : journals.lastKey()) + 1;
+    openJournal();
+    return new Snapshot(new ArrayList<>(transfers.values()), lastId, !journals.isEmpty());
+  }
+
+  public synchronized void appendScheduled(ScheduledTransfer transfer) throws IOException {
+    journal.writeByte(SCHEDULED);
+    writeTransfer(journal, transfer);
+  }
+
+  /**
+   * Records that occurrence number {@code occurrences} of the transfer is about to be executed, so it is never
+   * executed again after a restart.
+   */
+  public synchronized void appendClaimed(long id, int occurrences) throws IOException {
+    journal.writeByte(CLAIMED);
+    journal.writeLong(id);
+    journal.writeInt(occurrences);
+  }
+
+  public synchronized void appendCancelled(long id) throws IOException {
+    journal.writeByte(CANCELLED);
+    journal.writeLong(id);
+  }
+
+  /**
+   * Makes every change appended so far durable.
+   */
+  public synchronized void sync() throws IOException {
+    journal.flush();
+    journalChannel.force(false);
+  }
+
+  /**
+   * Starts a new journal. Must be called atomically with collecting the transfers passed to
+   * {@link #save(Collection, long, long)}, i.e. under the same lock the changes are appended with.
+   *
+   * @return generation of the snapshot to save
+   */
+  public synchronized long rotate() throws IOException {
+    closeJournal();
+    generation++;
+    openJournal();
+    return generation;
+  }
+
+  /**
+   * Replaces the snapshot with {@code transfers} and deletes the journals it includes.
+   *
+   * @param lastId highest transfer id assigned so far, ids are never reused after a restart
+   */
+  public void save(Collection<ScheduledTransfer> transfers, long lastId, long generation) throws IOException {
+    var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (var channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeLong(generation);
+      out.writeLong(lastId);
+      out.writeInt(transfers.size());
+      for (var transfer : transfers) {
+        writeTransfer(out, transfer);
+      }
+      out.flush();
+      channel.force(true);
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    for (var entry : journals().headMap(generation).entrySet()) {
+      Files.deleteIfExists(entry.getValue());
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (journal != null) {
+      closeJournal();
+      journal = null;
+    }
+  }
+
+  private void openJournal() throws IOException {
+    journalChannel = FileChannel.open(journalPath(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.APPEND);
+    journal = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(journalChannel)));
+  }
+
+  private void closeJournal() throws IOException {
+    sync();
+    journal.close();
+  }
+
+  private Path journalPath(long generation) {
+    return path.resolveSibling(path.getFileName() + JOURNAL_SUFFIX + generation);
+  }
+
+  private TreeMap<Long, Path> journals() throws IOException {
+    var prefix = path.getFileName() + JOURNAL_SUFFIX;
+    var journals = new TreeMap<Long, Path>();
+    var directory = path.toAbsolutePath().getParent();
+    try (var files = Files.list(directory)) {
+      files.forEach(file -> {
+        var name = file.getFileName().toString();
+        if (name.startsWith(prefix)) {
+          try {
+            journals.put(Long.parseLong(name.substring(prefix.length())), file);
+          } catch (NumberFormatException e) {
+            // not a journal
+          }
+        }
+      });
+    }
+    return journals;
+  }
+
+  /**
+   * @return highest transfer id found in the journal
+   */
+  private static long replay(Path journal, Map<Long, ScheduledTransfer> transfers) throws IOException {
+    long lastId = 0;
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+      while (true) {
+        int type = in.read();
+        // a file system may leave zeros instead of the last records after a crash
+        if (type <= 0) {
+          break;
+        }
+        if (type == SCHEDULED) {
+          var transfer = readTransfer(in);
+          lastId = Math.max(lastId, transfer.getId());
+          transfers.put(transfer.getId(), transfer);
+        } else if (type == CLAIMED) {
+          long id = in.readLong();
+          int occurrences = in.readInt();
+          var transfer = transfers.get(id);
+          if (transfer != null) {
+            transfer.setExecutedOccurrences(Math.max(transfer.getExecutedOccurrences(), occurrences));
+            if (transfer.isCompleted()) {
+              transfers.remove(id);
+            }
+          }
+        } else if (type == CANCELLED) {
+          transfers.remove(in.readLong());
+        } else {
+          throw new IOException(journal + " has an unknown record type " + type);
+        }
+      }
+    } catch (EOFException e) {
+      // the last record was not completely written before a crash, it was never acknowledged
+    }
+    return lastId;
+  }
+
+  private static ScheduledTransfer readTransfer(DataInput in) throws IOException {
+    var transfer = new ScheduledTransfer(
+      in.readLong(),
+      in.readUTF(),
+      in.readUTF(),
+      readAmount(in),
+      Instant.ofEpochMilli(in.readLong()),
+      Recurrence.values()[in.readByte()]
+    );
+    transfer.setExecutedOccurrences(in.readInt());
+    return transfer;
+  }
+
+  private static void writeTransfer(DataOutput out, ScheduledTransfer transfer) throws IOException {
+    out.writeLong(transfer.getId());
+    out.writeUTF(transfer.getFromAccountId());
+    out.writeUTF(transfer.getToAccountId());
+    writeAmount(out, transfer.getAmount());
+    out.writeLong(transfer.getFirstExecution().toEpochMilli());
+    out.writeByte(transfer.getRecurrence().ordinal());
+    out.writeInt(transfer.getExecutedOccurrences());
+  }
+
+  private static void writeAmount(DataOutput out, BigDecimal amount) throws IOException {
+    byte[] unscaled = amount.unscaledValue().toByteArray();
+    out.writeInt(amount.scale());
+    out.writeShort(unscaled.length);
+    out.write(unscaled);
+  }
+
+  private static BigDecimal readAmount(DataInput in) throws IOException {
+    int scale = in.readInt();
+    byte[] unscaled = new byte[in.readUnsignedShort()];
+    in.readFully(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+
+  @Data
+  public static class Snapshot {
+    private final List<ScheduledTransfer> transfers;
+    private final long lastId;
+    /**
+     * {@code true} if journals were replayed, so that the snapshot is worth saving again.
+     */
+    private final boolean journalReplayed;
+  }
+}
@@ -0,0 +1,111 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.exception.AccountNotFoundException;
+import com.dws.challenge.exception.AccountStateException;
+import com.dws.challenge.repository.AccountsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Freezes, closes and deletes accounts. Every status change is made while holding the account lock, so it never
+ * interleaves with a transfer updating the balance. Closed accounts stay visible for a retention period and are
+ * then removed by a background compaction together with scheduled transfers referring to them.
+ */
+@Slf4j
+@Service
+public class AccountLifecycleService {
+
+  private final AccountsRepository accountsRepository;
+  private final ScheduledTransferService scheduledTransferService;
+  private final BalanceMutationTracker mutationTracker;
+  private final long retentionMillis;
+
+  public AccountLifecycleService(AccountsRepository accountsRepository,
+                                 ScheduledTransferService scheduledTransferService,
+                                 BalanceMutationTracker mutationTracker,
+                                 @Value("${challenge.compaction.retention-ms:3600000}") long retentionMillis) {
+    this.accountsRepository = accountsRepository;
+    this.scheduledTransferService = scheduledTransferService;
+    this.mutationTracker = mutationTracker;
+    this.retentionMillis = retentionMillis;
+  }
+
+  public Account freeze(String accountId) {
+    return changeStatus(accountId, account -> {
+      if (account.getStatus() == AccountStatus.CLOSED) {
+        throw new AccountStateException("Account " + accountId + " is closed");
+      }
+      account.setStatus(AccountStatus.FROZEN);
+    });
+  }
+
+  public Account unfreeze(String accountId) {
+    return changeStatus(accountId, account -> {
+      if (account.getStatus() == AccountStatus.CLOSED) {
+        throw new AccountStateException("Account " + accountId + " is closed");
+      }
+      account.setStatus(AccountStatus.ACTIVE);
+    });
+  }
+
+  /**
+   * Only accounts with zero balance can be closed, otherwise money would disappear with them.
+   */
+  public Account close(String accountId) {
+    return changeStatus(accountId, account -> {
+      if (account.getStatus() == AccountStatus.CLOSED) {
+        return;
+      }
+      if (account.getBalance().signum() != 0) {
+        throw new AccountStateException("Account " + accountId + " has non-zero balance " + account.getBalance());
+      }
+      account.setClosedAt(Instant.now());
+      account.setStatus(AccountStatus.CLOSED);
+    });
+  }
+
+  /**
+   * Closes the account and removes it right away instead of waiting for compaction.
+   */
+  public void delete(String accountId) {
+    close(accountId);
+    if (mutationTracker.remove(() -> accountsRepository.deleteAccount(accountId))) {
+      scheduledTransferService.cancelForAccounts(Set.of(accountId));
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${challenge.compaction.interval-ms:60000}")
+  public int compact() {
+    var closedBefore = Instant.now().minusMillis(retentionMillis);
+    var removed = mutationTracker.remove(() -> accountsRepository.purgeClosedAccounts(closedBefore));
+    if (removed.isEmpty()) {
+      return 0;
+    }
+    int cancelled = scheduledTransferService.cancelForAccounts(new HashSet<>(removed));
+    log.info("Removed {} closed accounts and {} scheduled transfers referring to them", removed.size(), cancelled);
+    return removed.size();
+  }
+
+  private Account changeStatus(String accountId, Consumer<Account> change) {
+    var account = accountsRepository.getAccount(accountId);
+    if (account == null) {
+      throw new AccountNotFoundException("Account id " + accountId + " does not exist!");
+    }
+    account.lock();
+    try {
+      change.accept(account);
+    } finally {
+      account.unlock();
+    }
+    return account;
+  }
+}
@@ -0,0 +1,95 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.AccountBalance;
+import com.dws.challenge.domain.BalanceHistogram;
+import com.dws.challenge.repository.AccountsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ad-hoc queries over all accounts. Range queries can be answered from a sorted {@link BalanceIndex} which is
+ * rebuilt on demand once it gets older than {@code challenge.query.index-max-age-ms}, so its results may be
+ * that much out of date, plus the duration of a rebuild which is running concurrently. Indexes are only kept for
+ * currencies with an exchange rate, so clients can not make their number grow.
+ */
+@Service
+public class AccountQueryService {
+
+  private final AccountsRepository accountsRepository;
+  private final FxRateService fxRateService;
+  private final long indexMaxAgeMillis;
+  private final ConcurrentMap<String, CurrencyIndex> indexes = new ConcurrentHashMap<>();
+
+  public AccountQueryService(AccountsRepository accountsRepository,
+                             FxRateService fxRateService,
+                             @Value("${challenge.query.index-max-age-ms:5000}") long indexMaxAgeMillis) {
+    this.accountsRepository = accountsRepository;
+    this.fxRateService = fxRateService;
+    this.indexMaxAgeMillis = indexMaxAgeMillis;
+  }
+
+  public boolean supportsCurrency(String currency) {
+    return fxRateService.getRates().supports(currency);
+  }
+
+  public Set<String> getIndexedCurrencies() {
+    return Set.copyOf(indexes.keySet());
+  }
+
+  public List<AccountBalance> findByBalance(String currency, BigDecimal min, BigDecimal max, int limit, boolean indexed) {
+    if (!indexed) {
+      return accountsRepository.findByBalance(currency, min, max, limit);
+    }
+    return index(currency).range(min, max, limit);
+  }
+
+  public List<AccountBalance> findTopBalances(String currency, int count) {
+    return accountsRepository.findTopBalances(currency, count);
+  }
+
+  public BalanceHistogram balanceHistogram(String currency, BigDecimal bucketWidth, int buckets) {
+    return accountsRepository.balanceHistogram(currency, bucketWidth, buckets);
+  }
+
+  private BalanceIndex index(String currency) {
+    if (!supportsCurrency(currency)) {
+      throw new IllegalArgumentException("Unsupported currency " + currency);
+    }
+    long now = System.currentTimeMillis();
+    var currencyIndex = indexes.computeIfAbsent(currency, key -> new CurrencyIndex());
+    var index = currencyIndex.index;
+    if (index != null && !index.isOlderThan(indexMaxAgeMillis, now)) {
+      return index;
+    }
+    // a single query rebuilds the index, the others keep using the outdated one meanwhile or wait if there is none
+    if (index != null && !currencyIndex.rebuild.tryLock()) {
+      return index;
+    }
+    if (index == null) {
+      currencyIndex.rebuild.lock();
+    }
+    try {
+      index = currencyIndex.index;
+      if (index == null || index.isOlderThan(indexMaxAgeMillis, now)) {
+        index = new BalanceIndex(accountsRepository.findByBalance(currency, null, null, Integer.MAX_VALUE),
+          System.currentTimeMillis());
+        currencyIndex.index = index;
+      }
+      return index;
+    } finally {
+      currencyIndex.rebuild.unlock();
+    }
+  }
+
+  private static final class CurrencyIndex {
+    private final ReentrantLock rebuild = new ReentrantLock();
+    private volatile BalanceIndex index;
+  }
+}
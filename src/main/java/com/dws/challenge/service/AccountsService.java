@@ -1,15 +1,20 @@
 package com.dws.challenge.service;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountStatus;
 import com.dws.challenge.domain.TransferRequest;
 import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.events.TransferEventBus;
 import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.tracing.TransferPhase;
+import com.dws.challenge.tracing.TransferTrace;
+import com.dws.challenge.tracing.TransferTracer;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -22,18 +27,62 @@ public class AccountsService {
   private final ConcurrentMap<AccountPairKey, Semaphore> locks = new ConcurrentHashMap<>();
 
   private final AccountsRepository accountsRepository;
-  private final NotificationService notificationService;
+  private final BalanceMutationTracker mutationTracker;
+  private final FxRateService fxRateService;
+  private final TransferTracer transferTracer;
+  private final TransferEventBus transferEventBus;
+  private final List<TransferCheck> transferChecks;
 
   public void createAccount(Account account) {
-    this.accountsRepository.createAccount(account);
+    long epoch = mutationTracker.begin();
+    try {
+      this.accountsRepository.createAccount(account, epoch);
+    } finally {
+      mutationTracker.end(epoch);
+    }
   }
 
   public Account getAccount(String accountId) {
     return this.accountsRepository.getAccount(accountId);
   }
 
-  @SneakyThrows
+  /**
+   * Checks what can be checked about a transfer between the accounts before it is executed.
+   *
+   * @return status the transfer would be rejected with or {@code null}
+   */
+  public TransferStatus checkAccounts(String fromAccountId, String toAccountId) {
+    if (fromAccountId.equals(toAccountId)) {
+      return TransferStatus.SAME_ACCOUNT;
+    }
+    var from = getAccount(fromAccountId);
+    if (from == null || from.getStatus() == AccountStatus.CLOSED) {
+      return TransferStatus.FROM_ACC_MISSING;
+    }
+    var to = getAccount(toAccountId);
+    if (to == null || to.getStatus() == AccountStatus.CLOSED) {
+      return TransferStatus.TO_ACC_MISSING;
+    }
+    return null;
+  }
+
   public TransferStatus transfer(TransferRequest request) {
+    var trace = transferTracer.startTrace();
+    TransferStatus status = null;
+    try {
+      status = transfer(request, trace);
+      return status;
+    } finally {
+      trace.finish(status);
+    }
+  }
+
+  @SneakyThrows
+  private TransferStatus transfer(TransferRequest request, TransferTrace trace) {
+    if (request.getFromAccountId().equals(request.getToAccountId())) {
+      return TransferStatus.SAME_ACCOUNT;
+    }
+    trace.phase(TransferPhase.LOOKUP);
     var from = getAccount(request.getFromAccountId());
     if (from == null) {
       return TransferStatus.FROM_ACC_MISSING;
@@ -43,22 +92,62 @@ public class AccountsService {
       return TransferStatus.TO_ACC_MISSING;
     }
 
+    var transferAmount = request.getAmount();
+    var creditedAmount = transferAmount;
+    var crossCurrency = !from.getCurrency().equals(to.getCurrency());
+    if (crossCurrency) {
+      creditedAmount = fxRateService.getRates().convert(transferAmount, from.getCurrency(), to.getCurrency());
+      if (creditedAmount == null) {
+        return TransferStatus.UNSUPPORTED_CURRENCY;
+      }
+      // the debited amount would vanish if nothing arrives after rounding to the target currency
+      if (creditedAmount.signum() <= 0) {
+        return TransferStatus.AMOUNT_TOO_SMALL;
+      }
+    }
+
+    trace.phase(TransferPhase.PAIR_LOCK);
     final var accountPair = new AccountPairKey(from.getAccountId(), to.getAccountId());
     final var mutualLock = locks.computeIfAbsent(accountPair, key -> new Semaphore(1));
     mutualLock.acquire();
+    trace.phase(TransferPhase.ACCOUNT_LOCKS);
     from.lock();
     to.lock();
     try {
+      trace.phase(TransferPhase.CHECK);
+      // status is checked under the account locks, which are also held while an account is frozen or closed
+      if (from.getStatus() != AccountStatus.ACTIVE) {
+        return from.getStatus() == AccountStatus.FROZEN ? TransferStatus.FROM_ACC_FROZEN : TransferStatus.FROM_ACC_MISSING;
+      }
+      if (to.getStatus() != AccountStatus.ACTIVE) {
+        return to.getStatus() == AccountStatus.FROZEN ? TransferStatus.TO_ACC_FROZEN : TransferStatus.TO_ACC_MISSING;
+      }
       var fromBalance = from.getBalance();
       var toBalance = to.getBalance();
-      var transferAmount = request.getAmount();
       if (fromBalance.compareTo(transferAmount) < 0) {
         return TransferStatus.LIMIT_EXCEEDED;
       }
-      from.setBalance(fromBalance.subtract(transferAmount));
-      to.setBalance(toBalance.add(transferAmount));
-      notificationService.notifyAboutTransfer(from, fromMsg(transferAmount, to));
-      notificationService.notifyAboutTransfer(to, toMsg(transferAmount, from));
+      for (var transferCheck : transferChecks) {
+        var rejection = transferCheck.check(from, to, transferAmount);
+        if (rejection != null) {
+          return rejection;
+        }
+      }
+      trace.phase(TransferPhase.BALANCE_UPDATE);
+      long epoch = mutationTracker.begin();
+      try {
+        from.updateBalance(fromBalance.subtract(transferAmount), epoch);
+        to.updateBalance(toBalance.add(creditedAmount), epoch);
+        if (crossCurrency) {
+          accountsRepository.recordConversion(from.getCurrency(), transferAmount, to.getCurrency(), creditedAmount,
+            epoch);
+        }
+      } finally {
+        mutationTracker.end(epoch);
+      }
+      trace.phase(TransferPhase.PUBLISH);
+      // published under the account locks, so events of an account are sequenced in the order they were applied
+      transferEventBus.publish(from, to, transferAmount, creditedAmount);
       return TransferStatus.SUCCESS;
     } finally {
       to.unlock();
@@ -68,14 +157,6 @@ public class AccountsService {
     }
   }
 
-  private String toMsg(BigDecimal transferAmount, Account from) {
-    return "Transferred " + transferAmount + " into your account from " + from.getAccountId();
-  }
-
-  private String fromMsg(BigDecimal transferAmount, Account to) {
-    return "Transferred " + transferAmount + " from your account to " + to.getAccountId();
-  }
-
   @EqualsAndHashCode
   private static class AccountPairKey {
     private final Set<String> accIdCombination;
@@ -0,0 +1,19 @@
+package com.dws.challenge.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "challenge.audit.enabled", havingValue = "true")
+public class BalanceAuditScheduler {
+
+  private final BalanceAuditor balanceAuditor;
+
+  @Scheduled(fixedDelayString = "${challenge.audit.interval-ms:10000}")
+  public void audit() {
+    balanceAuditor.audit();
+  }
+}
@@ -0,0 +1,100 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.AuditResult;
+import com.dws.challenge.repository.AccountsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies that transfers neither create nor destroy money: the sum of all balances of every currency must be equal
+ * to the sum of balances the accounts were created with, adjusted by currency conversions. The sums are taken
+ * without locking any account, from a snapshot of {@link BalanceMutationTracker} which stays consistent while
+ * transfers run.
+ */
+@Slf4j
+@Service
+public class BalanceAuditor {
+
+  private final AccountsRepository accountsRepository;
+  private final BalanceMutationTracker mutationTracker;
+  private final MeterRegistry meterRegistry;
+  private final Duration maxWait;
+
+  private final ConcurrentMap<String, AtomicReference<BigDecimal>> lastDrift = new ConcurrentHashMap<>();
+  private final AtomicLong lastConsistentAudit = new AtomicLong();
+  private final Counter consistentAudits;
+  private final Counter driftAudits;
+  private final Counter inconclusiveAudits;
+
+  public BalanceAuditor(AccountsRepository accountsRepository,
+                        BalanceMutationTracker mutationTracker,
+                        MeterRegistry meterRegistry,
+                        @Value("${challenge.audit.max-wait-ms:1000}") long maxWaitMillis) {
+    this.accountsRepository = accountsRepository;
+    this.mutationTracker = mutationTracker;
+    this.meterRegistry = meterRegistry;
+    this.maxWait = Duration.ofMillis(maxWaitMillis);
+
+    Gauge.builder("accounts.audit.last.consistent", lastConsistentAudit, AtomicLong::get)
+      .description("Epoch millis of the last audit that could take a snapshot of the balances")
+      .register(meterRegistry);
+    this.consistentAudits = auditCounter(meterRegistry, "consistent");
+    this.driftAudits = auditCounter(meterRegistry, "drift");
+    this.inconclusiveAudits = auditCounter(meterRegistry, "inconclusive");
+  }
+
+  public AuditResult audit() {
+    var snapshot = mutationTracker.readSnapshot(maxWait, epoch -> AuditResult.consistent(
+      accountsRepository.expectedBalances(epoch), accountsRepository.totalBalances(epoch)));
+    if (snapshot.isPresent()) {
+      return report(snapshot.get());
+    }
+    inconclusiveAudits.increment();
+    log.warn("Balance audit inconclusive: transfers in progress did not complete within {}", maxWait);
+    return AuditResult.INCONCLUSIVE;
+  }
+
+  private AuditResult report(AuditResult result) {
+    var drift = result.getDrift();
+    result.getExpectedBalances().keySet().forEach(currency ->
+      driftGauge(currency).set(drift.getOrDefault(currency, BigDecimal.ZERO)));
+    drift.forEach((currency, difference) -> driftGauge(currency).set(difference));
+    lastConsistentAudit.set(System.currentTimeMillis());
+    if (drift.isEmpty()) {
+      consistentAudits.increment();
+    } else {
+      driftAudits.increment();
+      log.error("Money supply drift detected: expected total balances {}, actual {}",
+        result.getExpectedBalances(), result.getActualBalances());
+    }
+    return result;
+  }
+
+  private AtomicReference<BigDecimal> driftGauge(String currency) {
+    return lastDrift.computeIfAbsent(currency, key -> {
+      var value = new AtomicReference<>(BigDecimal.ZERO);
+      Gauge.builder("accounts.audit.drift", value, drift -> drift.get().doubleValue())
+        .description("Difference between actual and expected total balance found by the last consistent audit")
+        .tag("currency", key)
+        .register(meterRegistry);
+      return value;
+    });
+  }
+
+  private static Counter auditCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("accounts.audit.runs")
+      .tag("result", result)
+      .register(meterRegistry);
+  }
+}
@@ -0,0 +1,54 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.AccountBalance;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the balances of one currency sorted in ascending order, range queries are answered with
+ * a binary search instead of a full scan.
+ */
+class BalanceIndex {
+
+  private final AccountBalance[] balances;
+  private final long builtAtMillis;
+
+  BalanceIndex(List<AccountBalance> balances, long builtAtMillis) {
+    this.balances = balances.toArray(AccountBalance[]::new);
+    Arrays.parallelSort(this.balances, Comparator.comparing(AccountBalance::getBalance));
+    this.builtAtMillis = builtAtMillis;
+  }
+
+  boolean isOlderThan(long maxAgeMillis, long nowMillis) {
+    return nowMillis - builtAtMillis > maxAgeMillis;
+  }
+
+  List<AccountBalance> range(BigDecimal min, BigDecimal max, int limit) {
+    int from = min == null ? 0 : lowerBound(min);
+    int to = from;
+    while (to < balances.length && to - from < limit && (max == null || balances[to].getBalance().compareTo(max) <= 0)) {
+      to++;
+    }
+    return Arrays.asList(balances).subList(from, to);
+  }
+
+  /**
+   * @return index of the first balance which is not less than {@code value}
+   */
+  private int lowerBound(BigDecimal value) {
+    int low = 0;
+    int high = balances.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (balances[middle].getBalance().compareTo(value) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,93 @@
+package com.dws.challenge.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Lets a reader scan the accounts without locks and still see the balances as of a single point in time.
+ * <p>
+ * Every balance mutation runs within an epoch returned by {@link #begin()} and keeps the value an account or an
+ * expected total had before the first mutation of the epoch. A snapshot advances the epoch and waits until all
+ * mutations of the previous epoch are complete; from then on the values as of the snapshot are the current values
+ * of everything not yet mutated in the new epoch and the kept values of everything that was.
+ */
+@Component
+public class BalanceMutationTracker {
+
+  private final AtomicLong[] active = {new AtomicLong(), new AtomicLong()};
+  private final ReadWriteLock removals = new ReentrantReadWriteLock();
+  private volatile long epoch = 1;
+  private boolean previousEpochComplete = true;
+
+  /**
+   * @return epoch of the mutation, to be passed to {@link #end(long)}
+   */
+  public long begin() {
+    while (true) {
+      long current = epoch;
+      var counter = active[(int) (current & 1)];
+      counter.incrementAndGet();
+      if (epoch == current) {
+        return current;
+      }
+      counter.decrementAndGet();
+    }
+  }
+
+  public void end(long epoch) {
+    active[(int) (epoch & 1)].decrementAndGet();
+  }
+
+  /**
+   * Runs a removal of accounts, which must not happen while a snapshot is being read: a removed account might
+   * still hold a balance as of the snapshot.
+   */
+  public <T> T remove(Supplier<T> removal) {
+    removals.readLock().lock();
+    try {
+      return removal.get();
+    } finally {
+      removals.readLock().unlock();
+    }
+  }
+
+  /**
+   * Starts a new epoch and passes it to {@code reader} once mutations of the previous epoch are complete.
+   *
+   * @return result of the reader or empty if mutations of the previous epoch did not complete within
+   * {@code maxWait}, the next snapshot then keeps waiting for them instead of starting another epoch
+   */
+  public synchronized <T> Optional<T> readSnapshot(Duration maxWait, LongFunction<T> reader) {
+    removals.writeLock().lock();
+    try {
+      if (previousEpochComplete) {
+        epoch++;
+      }
+      long current = epoch;
+      var counter = active[(int) ((current - 1) & 1)];
+      long deadline = System.nanoTime() + maxWait.toNanos();
+      for (int spins = 0; counter.get() != 0; spins++) {
+        if (System.nanoTime() - deadline > 0) {
+          previousEpochComplete = false;
+          return Optional.empty();
+        }
+        if (spins < 100) {
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+      }
+      previousEpochComplete = true;
+      return Optional.ofNullable(reader.apply(current));
+    } finally {
+      removals.writeLock().unlock();
+    }
+  }
+}
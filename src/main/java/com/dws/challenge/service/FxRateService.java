@@ -0,0 +1,54 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Holds the current {@link FxRates} snapshot and replaces it whenever the rate file changes. Readers never lock:
+ * a transfer reads the volatile reference once and keeps using that snapshot.
+ */
+@Slf4j
+@Service
+public class FxRateService {
+
+  private final Resource ratesFile;
+
+  private volatile FxRates rates = new FxRates(Map.of(Account.DEFAULT_CURRENCY, BigDecimal.ONE));
+  private long lastModified = -1;
+
+  public FxRateService(@Value("${challenge.fx.rates-file:classpath:fx-rates.properties}") Resource ratesFile) {
+    this.ratesFile = ratesFile;
+  }
+
+  public FxRates getRates() {
+    return rates;
+  }
+
+  @PostConstruct
+  @Scheduled(fixedDelayString = "${challenge.fx.refresh-interval-ms:60000}",
+    initialDelayString = "${challenge.fx.refresh-interval-ms:60000}")
+  public synchronized void refresh() {
+    try {
+      long modified = ratesFile.lastModified();
+      if (modified == lastModified) {
+        return;
+      }
+      try (var in = ratesFile.getInputStream()) {
+        rates = FxRates.parse(in);
+      }
+      lastModified = modified;
+      log.info("Loaded {} exchange rates from {}", rates.size(), ratesFile);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to load exchange rates from {}, keeping {} previously loaded ones", ratesFile, rates.size(), e);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.dws.challenge.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of exchange rates. Multipliers for every currency pair are computed once, when the snapshot is
+ * built, so converting an amount is a multiplication by a fixed-point decimal followed by rounding to the target
+ * currency's minor unit.
+ */
+public final class FxRates {
+
+  /**
+   * Number of decimal places of the precomputed multipliers.
+   */
+  private static final int MULTIPLIER_SCALE = 12;
+
+  private final Map<String, Integer> indexes;
+  private final BigDecimal[][] multipliers;
+  private final int[] fractionDigits;
+
+  /**
+   * @param rates units of every currency per one unit of a common base currency
+   */
+  public FxRates(Map<String, BigDecimal> rates) {
+    var currencies = rates.keySet().toArray(String[]::new);
+    this.indexes = new HashMap<>();
+    this.multipliers = new BigDecimal[currencies.length][currencies.length];
+    this.fractionDigits = new int[currencies.length];
+    for (int from = 0; from < currencies.length; from++) {
+      var fromRate = rates.get(currencies[from]);
+      if (fromRate.signum() <= 0) {
+        throw new IllegalArgumentException("Rate of " + currencies[from] + " must be positive");
+      }
+      indexes.put(currencies[from], from);
+      int digits = Currency.getInstance(currencies[from]).getDefaultFractionDigits();
+      fractionDigits[from] = digits < 0 ? 2 : digits;
+      for (int to = 0; to < currencies.length; to++) {
+        multipliers[from][to] = rates.get(currencies[to]).divide(fromRate, MULTIPLIER_SCALE, RoundingMode.HALF_EVEN);
+      }
+    }
+  }
+
+  public static FxRates parse(InputStream in) throws IOException {
+    var properties = new Properties();
+    properties.load(in);
+    var rates = new HashMap<String, BigDecimal>();
+    properties.forEach((currency, rate) -> rates.put(((String) currency).trim(), new BigDecimal(((String) rate).trim())));
+    return new FxRates(rates);
+  }
+
+  public boolean supports(String currency) {
+    return indexes.containsKey(currency);
+  }
+
+  /**
+   * @return {@code amount} of {@code fromCurrency} expressed in {@code toCurrency} or {@code null} if any of
+   * the currencies is unknown
+   */
+  public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+    var from = indexes.get(fromCurrency);
+    var to = indexes.get(toCurrency);
+    if (from == null || to == null) {
+      return null;
+    }
+    return amount.multiply(multipliers[from][to]).setScale(fractionDigits[to], RoundingMode.HALF_EVEN);
+  }
+
+  public int size() {
+    return indexes.size();
+  }
+}
@@ -0,0 +1,374 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.domain.ScheduledTransferRequest;
+import com.dws.challenge.exception.TransferRejectedException;
+import com.dws.challenge.repository.ScheduledTransferStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes future-dated and recurring transfers. Pending transfers are kept in a {@link TimingWheel} advanced by
+ * a single ticker thread, transfers falling due on a tick are executed in batches on a separate pool.
+ * <p>
+ * With a store configured every change is journaled before it takes effect: an occurrence is claimed durably
+ * before it is executed, so a crash may skip an occurrence but never executes one twice.
+ */
+@Slf4j
+@Service
+public class ScheduledTransferService {
+
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_LEVELS = 4;
+
+  private final AccountsService accountsService;
+  private final ScheduledTransferStore store;
+  private final long tickMillis;
+  private final int batchSize;
+
+  private final TimingWheel<ScheduledTransfer> wheel;
+  // guarded by wheel, contains transfers being executed as well as pending ones
+  private final Map<Long, TimingWheel.Timeout<ScheduledTransfer>> timeouts = new HashMap<>();
+  // guarded by wheel, ids of transfers in timeouts by the accounts they refer to
+  private final Map<String, Set<Long>> transfersByAccount = new HashMap<>();
+  // guarded by wheel, ids of transfers with a claimed occurrence being executed
+  private final Set<Long> executing = new HashSet<>();
+  private final AtomicLong ids = new AtomicLong();
+  private volatile boolean dirty;
+
+  private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+    runnable -> new Thread(runnable, "scheduled-transfer-ticker"));
+  private final ExecutorService executor;
+
+  public ScheduledTransferService(AccountsService accountsService,
+                                  @Value("${challenge.scheduler.store-file:scheduled-transfers.bin}") String storeFile,
+                                  @Value("${challenge.scheduler.tick-ms:1000}") long tickMillis,
+                                  @Value("${challenge.scheduler.batch-size:1000}") int batchSize,
+                                  @Value("${challenge.scheduler.threads:4}") int threads) {
+    this.accountsService = accountsService;
+    this.store = storeFile.isEmpty() ? null : new ScheduledTransferStore(Path.of(storeFile));
+    this.tickMillis = tickMillis;
+    this.batchSize = batchSize;
+    this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    this.executor = Executors.newFixedThreadPool(threads);
+  }
+
+  @PostConstruct
+  void start() throws IOException {
+    if (store != null) {
+      var snapshot = store.load();
+      synchronized (wheel) {
+        ids.set(snapshot.getLastId());
+        for (var transfer : snapshot.getTransfers()) {
+          timeouts.put(transfer.getId(), wheel.schedule(transfer, transfer.getNextExecution().toEpochMilli()));
+          index(transfer);
+        }
+      }
+      dirty = snapshot.isJournalReplayed();
+      log.info("Loaded {} scheduled transfers", snapshot.getTransfers().size());
+      ticker.scheduleWithFixedDelay(this::saveIfDirty, 10, 10, TimeUnit.SECONDS);
+    }
+    ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException, IOException {
+    ticker.shutdown();
+    ticker.awaitTermination(10, TimeUnit.SECONDS);
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    saveIfDirty();
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  /**
+   * @throws TransferRejectedException if the transfer would fail on every execution
+   */
+  public ScheduledTransfer schedule(ScheduledTransferRequest request) {
+    var rejection = accountsService.checkAccounts(request.getFromAccountId(), request.getToAccountId());
+    if (rejection != null) {
+      throw new TransferRejectedException(rejection);
+    }
+    var transfer = new ScheduledTransfer(
+      ids.incrementAndGet(),
+      request.getFromAccountId(),
+      request.getToAccountId(),
+      request.getAmount(),
+      request.getExecuteAt(),
+      request.getRecurrence()
+    );
+    synchronized (wheel) {
+      journal(() -> store.appendScheduled(transfer));
+      timeouts.put(transfer.getId(), wheel.schedule(transfer, transfer.getFirstExecution().toEpochMilli()));
+      index(transfer);
+    }
+    dirty = true;
+    try {
+      sync();
+    } catch (UncheckedIOException e) {
+      // not acknowledged, so it must not be executed either
+      synchronized (wheel) {
+        var timeout = timeouts.remove(transfer.getId());
+        if (timeout != null) {
+          wheel.cancel(timeout);
+          unindex(transfer);
+        }
+      }
+      throw e;
+    }
+    return transfer;
+  }
+
+  public ScheduledTransfer getScheduledTransfer(long id) {
+    synchronized (wheel) {
+      var timeout = timeouts.get(id);
+      return timeout == null ? null : timeout.getValue();
+    }
+  }
+
+  /**
+   * A transfer which is being executed at the moment is not rescheduled after cancellation.
+   */
+  public boolean cancel(long id) {
+    TimingWheel.Timeout<ScheduledTransfer> timeout;
+    synchronized (wheel) {
+      timeout = timeouts.get(id);
+      if (timeout == null) {
+        return false;
+      }
+      journal(() -> store.appendCancelled(id));
+      timeouts.remove(id);
+      wheel.cancel(timeout);
+      unindex(timeout.getValue());
+    }
+    dirty = true;
+    try {
+      sync();
+    } catch (UncheckedIOException e) {
+      // not acknowledged, so the transfer stays scheduled
+      restore(timeout);
+      throw e;
+    }
+    return true;
+  }
+
+  /**
+   * Puts back a transfer whose cancellation could not be made durable.
+   */
+  private void restore(TimingWheel.Timeout<ScheduledTransfer> timeout) {
+    var transfer = timeout.getValue();
+    synchronized (wheel) {
+      if (timeouts.containsKey(transfer.getId()) || transfer.isCompleted()) {
+        return;
+      }
+      // a transfer being executed is rescheduled by the execution once it completes
+      timeouts.put(transfer.getId(), executing.contains(transfer.getId())
+        ? timeout
+        : wheel.schedule(transfer, transfer.getNextExecution().toEpochMilli()));
+      index(transfer);
+    }
+  }
+
+  /**
+   * Cancels every scheduled transfer from or to any of {@code accountIds}.
+   *
+   * @return number of cancelled transfers
+   */
+  public int cancelForAccounts(Set<String> accountIds) {
+    int cancelled = 0;
+    synchronized (wheel) {
+      for (var accountId : accountIds) {
+        var ids = transfersByAccount.get(accountId);
+        if (ids == null) {
+          continue;
+        }
+        // unindex modifies the set
+        for (var id : List.copyOf(ids)) {
+          var timeout = timeouts.get(id);
+          if (timeout == null) {
+            continue;
+          }
+          journal(() -> store.appendCancelled(id));
+          timeouts.remove(id);
+          wheel.cancel(timeout);
+          unindex(timeout.getValue());
+          cancelled++;
+        }
+      }
+    }
+    if (cancelled > 0) {
+      sync();
+      dirty = true;
+    }
+    return cancelled;
+  }
+
+  private void tick() {
+    try {
+      List<ScheduledTransfer> due = new ArrayList<>();
+      try {
+        synchronized (wheel) {
+          wheel.advance(System.currentTimeMillis(), due::add);
+          claim(due);
+        }
+        if (!due.isEmpty()) {
+          sync();
+        }
+      } catch (UncheckedIOException e) {
+        log.error("Failed to claim {} due scheduled transfers, retrying on the next tick", due.size(), e);
+        release(due);
+        return;
+      }
+      for (int from = 0; from < due.size(); from += batchSize) {
+        var batch = due.subList(from, Math.min(due.size(), from + batchSize));
+        executor.execute(() -> batch.forEach(this::execute));
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to advance scheduled transfers", e);
+    }
+  }
+
+  private void execute(ScheduledTransfer transfer) {
+    try {
+      transfer.setLastStatus(accountsService.transfer(transfer.toTransferRequest()));
+    } catch (RuntimeException e) {
+      log.error("Scheduled transfer {} failed", transfer.getId(), e);
+    }
+    synchronized (wheel) {
+      executing.remove(transfer.getId());
+      transfer.setExecutedOccurrences(transfer.getExecutedOccurrences() + 1);
+      if (!timeouts.containsKey(transfer.getId())) {
+        return;
+      }
+      if (transfer.isCompleted()) {
+        timeouts.remove(transfer.getId());
+        unindex(transfer);
+      } else {
+        timeouts.put(transfer.getId(), wheel.schedule(transfer, transfer.getNextExecution().toEpochMilli()));
+      }
+    }
+    dirty = true;
+  }
+
+  private void index(ScheduledTransfer transfer) {
+    transfersByAccount.computeIfAbsent(transfer.getFromAccountId(), accountId -> new HashSet<>()).add(transfer.getId());
+    transfersByAccount.computeIfAbsent(transfer.getToAccountId(), accountId -> new HashSet<>()).add(transfer.getId());
+  }
+
+  private void unindex(ScheduledTransfer transfer) {
+    for (var accountId : List.of(transfer.getFromAccountId(), transfer.getToAccountId())) {
+      var ids = transfersByAccount.get(accountId);
+      if (ids != null && ids.remove(transfer.getId()) && ids.isEmpty()) {
+        transfersByAccount.remove(accountId);
+      }
+    }
+  }
+
+  /**
+   * Journals the occurrences of {@code due} transfers as executed before they actually are. Called under the wheel
+   * lock, so that a snapshot taken meanwhile sees the transfers as executing.
+   */
+  private void claim(List<ScheduledTransfer> due) {
+    for (var transfer : due) {
+      executing.add(transfer.getId());
+    }
+    for (var transfer : due) {
+      journal(() -> store.appendClaimed(transfer.getId(), transfer.getExecutedOccurrences() + 1));
+    }
+  }
+
+  /**
+   * Puts back transfers whose claims could not be made durable, they are retried on the next tick.
+   */
+  private void release(List<ScheduledTransfer> due) {
+    synchronized (wheel) {
+      for (var transfer : due) {
+        executing.remove(transfer.getId());
+        if (timeouts.containsKey(transfer.getId())) {
+          timeouts.put(transfer.getId(), wheel.schedule(transfer, transfer.getNextExecution().toEpochMilli()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Compacts the journal into a new snapshot.
+   */
+  private void saveIfDirty() {
+    if (store == null || !dirty) {
+      return;
+    }
+    dirty = false;
+    List<ScheduledTransfer> pending = new ArrayList<>();
+    long lastId;
+    long generation;
+    try {
+      synchronized (wheel) {
+        for (var timeout : timeouts.values()) {
+          var transfer = timeout.getValue();
+          if (executing.contains(transfer.getId())) {
+            // the running occurrence is already claimed in the journal being compacted
+            transfer = claimed(transfer);
+            if (transfer.isCompleted()) {
+              continue;
+            }
+          }
+          pending.add(transfer);
+        }
+        lastId = ids.get();
+        generation = store.rotate();
+      }
+      store.save(pending, lastId, generation);
+    } catch (IOException e) {
+      dirty = true;
+      log.error("Failed to save scheduled transfers", e);
+    }
+  }
+
+  private static ScheduledTransfer claimed(ScheduledTransfer transfer) {
+    var copy = new ScheduledTransfer(transfer.getId(), transfer.getFromAccountId(), transfer.getToAccountId(),
+      transfer.getAmount(), transfer.getFirstExecution(), transfer.getRecurrence());
+    copy.setExecutedOccurrences(transfer.getExecutedOccurrences() + 1);
+    return copy;
+  }
+
+  private void journal(JournalWrite write) {
+    if (store == null) {
+      return;
+    }
+    try {
+      write.run();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to journal a scheduled transfer change", e);
+    }
+  }
+
+  private void sync() {
+    journal(() -> store.sync());
+  }
+
+  @FunctionalInterface
+  private interface JournalWrite {
+    void run() throws IOException;
+  }
+}
@@ -0,0 +1,142 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferRequest;
+import com.dws.challenge.events.OverflowPolicy;
+import com.dws.challenge.events.TransferEvent;
+import com.dws.challenge.events.TransferEventBus;
+import com.dws.challenge.events.TransferEventSubscriber;
+import com.dws.challenge.fraud.VelocityCheck;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.tracing.TransferTracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets the transfer path and the JSON codecs compiled by the JIT before the instance receives traffic. Transfers
+ * go through the application's tracer and the same event bus and velocity check code, but between accounts of a
+ * throwaway repository and with their own bus and {@link VelocityCheck#copy() check}, so accounts, event subscribers
+ * and fraud state are left untouched.
+ * Runners are called before readiness is switched to {@code ACCEPTING_TRAFFIC}, so the readiness probe keeps
+ * failing until the warmup is over. Disabled unless {@code challenge.warmup.iterations} is set, as it is in the
+ * {@code production} profile.
+ */
+@Slf4j
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+  private static final int ACCOUNTS = 64;
+  private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000);
+  private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+  private static final int EVENT_BUFFER_SIZE = 1024;
+
+  private final FxRateService fxRateService;
+  private final TransferTracer transferTracer;
+  private final VelocityCheck velocityCheck;
+  private final ObjectMapper objectMapper;
+  private final ConfigurableApplicationContext context;
+  private final int iterations;
+  private final long maxDurationMillis;
+  private final boolean exitAfterWarmup;
+
+  public StartupWarmup(FxRateService fxRateService,
+                       TransferTracer transferTracer,
+                       VelocityCheck velocityCheck,
+                       ObjectMapper objectMapper,
+                       ConfigurableApplicationContext context,
+                       @Value("${challenge.warmup.iterations:0}") int iterations,
+                       @Value("${challenge.warmup.max-duration-ms:10000}") long maxDurationMillis,
+                       @Value("${challenge.warmup.exit:false}") boolean exitAfterWarmup) {
+    this.fxRateService = fxRateService;
+    this.transferTracer = transferTracer;
+    this.velocityCheck = velocityCheck;
+    this.objectMapper = objectMapper;
+    this.context = context;
+    this.iterations = iterations;
+    this.maxDurationMillis = maxDurationMillis;
+    this.exitAfterWarmup = exitAfterWarmup;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (iterations > 0) {
+      warmUp();
+    }
+    if (exitAfterWarmup) {
+      // training run of the AppCDS archive, see the cdsArchive task
+      log.info("Exiting after warmup");
+      System.exit(SpringApplication.exit(context));
+    }
+  }
+
+  private void warmUp() throws Exception {
+    long start = System.nanoTime();
+    var eventBus = new TransferEventBus(EVENT_BUFFER_SIZE, List.of(new DiscardingSubscriber()),
+      new SimpleMeterRegistry());
+    try {
+      runTransfers(new AccountsService(new AccountsRepositoryInMemory(), new BalanceMutationTracker(), fxRateService,
+        transferTracer, eventBus, List.of(velocityCheck.copy())), start);
+    } finally {
+      eventBus.close();
+    }
+  }
+
+  private void runTransfers(AccountsService accountsService, long start) throws Exception {
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+    for (int i = 0; i < ACCOUNTS; i++) {
+      // every fourth account is in another currency to go through the conversion as well
+      var currency = i % 4 == 0 ? "USD" : Account.DEFAULT_CURRENCY;
+      var account = objectMapper.readValue(
+        objectMapper.writeValueAsBytes(new Account(accountId(i), INITIAL_BALANCE, currency)), Account.class);
+      accountsService.createAccount(account);
+    }
+    int done = 0;
+    for (; done < iterations; done++) {
+      if ((done & 255) == 0 && System.nanoTime() > deadline) {
+        break;
+      }
+      int from = done % ACCOUNTS;
+      int to = (from + 1 + done / ACCOUNTS % (ACCOUNTS - 1)) % ACCOUNTS;
+      // an occasional overdraft covers the rejection branch
+      var amount = done % 16 == 0 ? INITIAL_BALANCE.add(INITIAL_BALANCE) : AMOUNT;
+      var request = objectMapper.readValue(
+        objectMapper.writeValueAsBytes(new TransferRequest(accountId(from), accountId(to), amount)), TransferRequest.class);
+      objectMapper.writeValueAsBytes(accountsService.transfer(request));
+      objectMapper.writeValueAsBytes(accountsService.getAccount(request.getToAccountId()));
+    }
+    log.info("Warmed up with {} transfers in {} ms", done, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private static String accountId(int index) {
+    return "warmup-" + index;
+  }
+
+  private static class DiscardingSubscriber implements TransferEventSubscriber {
+
+    @Override
+    public String getName() {
+      return "warmup";
+    }
+
+    @Override
+    public OverflowPolicy getOverflowPolicy() {
+      return OverflowPolicy.DROP;
+    }
+
+    @Override
+    public void onEvent(TransferEvent event, boolean endOfBatch) {
+      // only the bus itself is warmed up
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.dws.challenge.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel: every level has {@code wheelSize} slots, a slot of level {@code n} spans
+ * {@code wheelSize^n} ticks. Scheduling and cancelling are O(1), entries of a higher level slot are redistributed
+ * to lower levels when the wheel reaches that slot.
+ * <p>
+ * Not thread-safe, callers are expected to guard the wheel with a lock.
+ */
+public class TimingWheel<T> {
+
+  private final long tickMillis;
+  private final int levels;
+  private final int bits;
+  private final int mask;
+  private final Timeout<T>[][] slots;
+
+  private long currentTick;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+    if (Integer.bitCount(wheelSize) != 1 || wheelSize < 2) {
+      throw new IllegalArgumentException("Wheel size must be a power of two, got " + wheelSize);
+    }
+    this.bits = Integer.numberOfTrailingZeros(wheelSize);
+    if (levels < 1 || bits * levels > 62) {
+      throw new IllegalArgumentException("Unsupported number of levels " + levels + " for wheel size " + wheelSize);
+    }
+    this.tickMillis = tickMillis;
+    this.levels = levels;
+    this.mask = wheelSize - 1;
+    this.slots = new Timeout[levels][wheelSize];
+    this.currentTick = startMillis / tickMillis;
+  }
+
+  /**
+   * Deadlines which are already due expire on the next tick, others on the first tick not before the deadline.
+   */
+  public Timeout<T> schedule(T value, long deadlineMillis) {
+    var timeout = new Timeout<>(value, Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1));
+    place(timeout);
+    size++;
+    return timeout;
+  }
+
+  public boolean cancel(Timeout<T> timeout) {
+    if (timeout.level < 0) {
+      return false;
+    }
+    unlink(timeout);
+    size--;
+    return true;
+  }
+
+  /**
+   * Moves the wheel up to {@code nowMillis} handing every expired value to {@code expired}.
+   */
+  public void advance(long nowMillis, Consumer<T> expired) {
+    long targetTick = nowMillis / tickMillis;
+    if (size == 0) {
+      currentTick = Math.max(currentTick, targetTick);
+      return;
+    }
+    while (currentTick < targetTick) {
+      long tick = ++currentTick;
+      for (int level = levels - 1; level > 0; level--) {
+        if ((tick & ((1L << (bits * level)) - 1)) == 0) {
+          cascade(detach(level, slotIndex(tick, level)), expired);
+        }
+      }
+      cascade(detach(0, slotIndex(tick, 0)), expired);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void cascade(Timeout<T> timeout, Consumer<T> expired) {
+    while (timeout != null) {
+      var next = timeout.next;
+      timeout.next = null;
+      timeout.prev = null;
+      if (timeout.deadlineTick <= currentTick) {
+        size--;
+        expired.accept(timeout.value);
+      } else {
+        place(timeout);
+      }
+      timeout = next;
+    }
+  }
+
+  private void place(Timeout<T> timeout) {
+    long delta = timeout.deadlineTick - currentTick;
+    int level = 0;
+    long span = mask + 1L;
+    while (level < levels - 1 && delta >= span) {
+      level++;
+      span <<= bits;
+    }
+    // deadlines beyond the range of the top level are parked in its farthest slot and re-placed from there
+    long slotTick = delta < span ? timeout.deadlineTick : currentTick + span - 1;
+    int slot = slotIndex(slotTick, level);
+
+    timeout.level = level;
+    timeout.slot = slot;
+    timeout.next = slots[level][slot];
+    if (timeout.next != null) {
+      timeout.next.prev = timeout;
+    }
+    slots[level][slot] = timeout;
+  }
+
+  private void unlink(Timeout<T> timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      slots[timeout.level][timeout.slot] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.level = -1;
+  }
+
+  private Timeout<T> detach(int level, int slot) {
+    var head = slots[level][slot];
+    slots[level][slot] = null;
+    for (var timeout = head; timeout != null; timeout = timeout.next) {
+      timeout.level = -1;
+    }
+    return head;
+  }
+
+  private int slotIndex(long tick, int level) {
+    return (int) ((tick >>> (bits * level)) & mask);
+  }
+
+  public static final class Timeout<T> {
+    private final T value;
+    private final long deadlineTick;
+    private int level = -1;
+    private int slot;
+    private Timeout<T> prev;
+    private Timeout<T> next;
+
+    private Timeout(T value, long deadlineTick) {
+      this.value = value;
+      this.deadlineTick = deadlineTick;
+    }
+
+    public T getValue() {
+      return value;
+    }
+
+    public boolean isPending() {
+      return level >= 0;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Pre-commit stage of {@link AccountsService#transfer}. Checks are called in order while both accounts are
+ * locked and after the balance was found to cover the amount, a check letting a transfer through may assume it
+ * is committed. Transfers between other accounts are checked concurrently.
+ */
+public interface TransferCheck {
+
+  /**
+   * @param amount amount debited from {@code from} in its currency
+   * @return {@code null} to let the transfer through, otherwise the status it is rejected with
+   */
+  TransferStatus check(Account from, Account to, BigDecimal amount);
+}
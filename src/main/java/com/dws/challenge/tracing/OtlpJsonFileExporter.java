@@ -0,0 +1,83 @@
+package com.dws.challenge.tracing;
+
+import com.dws.challenge.domain.TransferStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Appends spans to a file in the OTLP JSON format, one {@code ExportTraceServiceRequest} per line, which can be
+ * picked up by the OpenTelemetry collector's {@code otlpjsonfile} receiver.
+ */
+class OtlpJsonFileExporter implements SpanBuffer.SpanConsumer, Closeable {
+
+  private static final TransferStatus[] STATUSES = TransferStatus.values();
+  private static final String BATCH_START = "{\"resourceSpans\":[{\"resource\":{\"attributes\":["
+    + "{\"key\":\"service.name\",\"value\":{\"stringValue\":\"challenge\"}}]},"
+    + "\"scopeSpans\":[{\"scope\":{\"name\":\"com.dws.challenge.tracing\"},\"spans\":[";
+  private static final String BATCH_END = "]}]}]}\n";
+
+  private final Writer writer;
+  /**
+   * Upper half of 128-bit trace ids, distinguishes traces of different instances.
+   */
+  private final String traceIdPrefix = String.format("%016x", ThreadLocalRandom.current().nextLong());
+  private final long epochOffsetNanos;
+  private final StringBuilder batch = new StringBuilder();
+  private int spansInBatch;
+
+  OtlpJsonFileExporter(Path file) throws IOException {
+    this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    var now = Instant.now();
+    this.epochOffsetNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+  }
+
+  @Override
+  public void accept(long traceId, TransferPhase phase, long start, long end, int status) {
+    if (spansInBatch++ > 0) {
+      batch.append(',');
+    }
+    var rootSpanId = String.format("%016x", traceId);
+    batch.append("{\"traceId\":\"").append(traceIdPrefix).append(rootSpanId).append('"');
+    if (phase == TransferPhase.TRANSFER) {
+      batch.append(",\"spanId\":\"").append(rootSpanId).append('"');
+    } else {
+      batch.append(",\"spanId\":\"").append(String.format("%016x", traceId + phase.ordinal())).append('"')
+        .append(",\"parentSpanId\":\"").append(rootSpanId).append('"');
+    }
+    batch.append(",\"name\":\"").append(phase.getSpanName()).append('"')
+      .append(",\"kind\":1")
+      .append(",\"startTimeUnixNano\":\"").append(epochOffsetNanos + start).append('"')
+      .append(",\"endTimeUnixNano\":\"").append(epochOffsetNanos + end).append('"');
+    if (status >= 0) {
+      batch.append(",\"attributes\":[{\"key\":\"transfer.status\",\"value\":{\"stringValue\":\"")
+        .append(STATUSES[status]).append("\"}}]");
+    }
+    batch.append('}');
+  }
+
+  void flush() throws IOException {
+    if (spansInBatch == 0) {
+      return;
+    }
+    writer.write(BATCH_START);
+    writer.append(batch);
+    writer.write(BATCH_END);
+    writer.flush();
+    batch.setLength(0);
+    spansInBatch = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    writer.close();
+  }
+}
@@ -0,0 +1,82 @@
+package com.dws.challenge.tracing;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Preallocated single-producer single-consumer ring of finished spans. The owning thread appends spans, the export
+ * thread drains them. Spans are dropped rather than overwritten when the exporter falls behind.
+ * <p>
+ * Must be created by the owning thread.
+ */
+class SpanBuffer {
+
+  private static final TransferPhase[] PHASES = TransferPhase.values();
+
+  private final int mask;
+  private final long[] traceIds;
+  private final long[] starts;
+  private final long[] ends;
+  private final byte[] phases;
+  private final byte[] statuses;
+
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final LongAdder dropped;
+  private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+
+  SpanBuffer(int capacity, LongAdder dropped) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Span buffer capacity must be a power of two, got " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.traceIds = new long[capacity];
+    this.starts = new long[capacity];
+    this.ends = new long[capacity];
+    this.phases = new byte[capacity];
+    this.statuses = new byte[capacity];
+    this.dropped = dropped;
+  }
+
+  /**
+   * @param status ordinal of the transfer status or -1 if the span has none
+   */
+  void add(long traceId, TransferPhase phase, long start, long end, int status) {
+    long position = tail.get();
+    if (position - head.get() > mask) {
+      dropped.increment();
+      return;
+    }
+    int index = (int) position & mask;
+    traceIds[index] = traceId;
+    starts[index] = start;
+    ends[index] = end;
+    phases[index] = (byte) phase.ordinal();
+    statuses[index] = (byte) status;
+    tail.lazySet(position + 1);
+  }
+
+  /**
+   * Once this returns {@code false} no more spans are added and everything added so far is visible to the caller.
+   */
+  boolean isOwnerAlive() {
+    var thread = owner.get();
+    return thread != null && thread.isAlive();
+  }
+
+  int drainTo(SpanConsumer consumer) {
+    long from = head.get();
+    long to = tail.get();
+    for (long position = from; position < to; position++) {
+      int index = (int) position & mask;
+      consumer.accept(traceIds[index], PHASES[phases[index]], starts[index], ends[index], statuses[index]);
+    }
+    head.lazySet(to);
+    return (int) (to - from);
+  }
+
+  interface SpanConsumer {
+    void accept(long traceId, TransferPhase phase, long start, long end, int status);
+  }
+}
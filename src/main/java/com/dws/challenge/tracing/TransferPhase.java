@@ -0,0 +1,21 @@
+package com.dws.challenge.tracing;
+
+public enum TransferPhase {
+  TRANSFER("transfer"),
+  LOOKUP("transfer.lookup"),
+  PAIR_LOCK("transfer.pair_lock"),
+  ACCOUNT_LOCKS("transfer.account_locks"),
+  CHECK("transfer.check"),
+  BALANCE_UPDATE("transfer.balance_update"),
+  PUBLISH("transfer.publish");
+
+  private final String spanName;
+
+  TransferPhase(String spanName) {
+    this.spanName = spanName;
+  }
+
+  public String getSpanName() {
+    return spanName;
+  }
+}
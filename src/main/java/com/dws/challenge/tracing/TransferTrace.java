@@ -0,0 +1,57 @@
+package com.dws.challenge.tracing;
+
+import com.dws.challenge.domain.TransferStatus;
+
+/**
+ * Sequence of phases of a single transfer. Every thread reuses its own instance, so tracing a sampled transfer
+ * allocates nothing; transfers which are not sampled get {@link #NOOP}.
+ */
+public class TransferTrace {
+
+  static final TransferTrace NOOP = new TransferTrace(null);
+
+  private final SpanBuffer buffer;
+
+  private long traceId;
+  private long traceStart;
+  private TransferPhase phase;
+  private long phaseStart;
+
+  TransferTrace(SpanBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  TransferTrace start(long traceId) {
+    this.traceId = traceId;
+    this.traceStart = System.nanoTime();
+    this.phase = null;
+    return this;
+  }
+
+  /**
+   * Ends the current phase, if any, and starts the next one.
+   */
+  public void phase(TransferPhase next) {
+    if (buffer == null) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (phase != null) {
+      buffer.add(traceId, phase, phaseStart, now, -1);
+    }
+    phase = next;
+    phaseStart = now;
+  }
+
+  public void finish(TransferStatus status) {
+    if (buffer == null) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (phase != null) {
+      buffer.add(traceId, phase, phaseStart, now, -1);
+      phase = null;
+    }
+    buffer.add(traceId, TransferPhase.TRANSFER, traceStart, now, status == null ? -1 : status.ordinal());
+  }
+}
@@ -0,0 +1,110 @@
+package com.dws.challenge.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples transfers and records their phases into per-thread {@link SpanBuffer}s, which are periodically drained
+ * by a background thread into an OTLP JSON file. With a zero sample rate tracing costs a single branch per transfer.
+ */
+@Slf4j
+@Component
+public class TransferTracer {
+
+  private final double sampleRate;
+  private final int bufferSize;
+  private final Queue<SpanBuffer> buffers = new ConcurrentLinkedQueue<>();
+  private final LongAdder droppedSpans = new LongAdder();
+  private final ThreadLocal<TransferTrace> traces = ThreadLocal.withInitial(this::newTrace);
+
+  private final OtlpJsonFileExporter exporter;
+  private final ScheduledExecutorService exportThread;
+
+  public TransferTracer(@Value("${challenge.tracing.sample-rate:0}") double sampleRate,
+                        @Value("${challenge.tracing.buffer-size:1024}") int bufferSize,
+                        @Value("${challenge.tracing.export-file:traces.jsonl}") String exportFile,
+                        @Value("${challenge.tracing.export-interval-ms:1000}") long exportIntervalMillis) throws IOException {
+    this.sampleRate = sampleRate;
+    this.bufferSize = bufferSize;
+    if (sampleRate > 0) {
+      this.exporter = new OtlpJsonFileExporter(Path.of(exportFile));
+      this.exportThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "transfer-trace-exporter");
+        thread.setDaemon(true);
+        return thread;
+      });
+      exportThread.scheduleWithFixedDelay(this::export, exportIntervalMillis, exportIntervalMillis, TimeUnit.MILLISECONDS);
+    } else {
+      this.exporter = null;
+      this.exportThread = null;
+    }
+  }
+
+  public TransferTrace startTrace() {
+    if (sampleRate <= 0) {
+      return TransferTrace.NOOP;
+    }
+    var random = ThreadLocalRandom.current();
+    if (sampleRate < 1 && random.nextDouble() >= sampleRate) {
+      return TransferTrace.NOOP;
+    }
+    return traces.get().start(random.nextLong());
+  }
+
+  public long getDroppedSpans() {
+    return droppedSpans.sum();
+  }
+
+  /**
+   * @return number of span buffers, one per thread which started a sampled trace and was alive at the last export
+   */
+  public int getSpanBuffers() {
+    return buffers.size();
+  }
+
+  synchronized void export() {
+    try {
+      for (var iterator = buffers.iterator(); iterator.hasNext(); ) {
+        var buffer = iterator.next();
+        // checked before draining, so the spans of a dead owner are all drained before the buffer is dropped
+        var ownerAlive = buffer.isOwnerAlive();
+        buffer.drainTo(exporter);
+        if (!ownerAlive) {
+          iterator.remove();
+        }
+      }
+      exporter.flush();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to export transfer traces", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException, InterruptedException {
+    if (exportThread == null) {
+      return;
+    }
+    exportThread.shutdown();
+    exportThread.awaitTermination(1, TimeUnit.SECONDS);
+    export();
+    exporter.close();
+  }
+
+  private TransferTrace newTrace() {
+    var buffer = new SpanBuffer(bufferSize, droppedSpans);
+    buffers.add(buffer);
+    return new TransferTrace(buffer);
+  }
+}
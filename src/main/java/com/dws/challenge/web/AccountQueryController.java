@@ -0,0 +1,67 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.service.AccountQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/v1/accounts/query")
+@RequiredArgsConstructor
+public class AccountQueryController {
+
+  private static final int MAX_RESULTS = 10_000;
+  private static final int MAX_BUCKETS = 1_000;
+
+  private final AccountQueryService accountQueryService;
+
+  @GetMapping(path = "/balance")
+  public ResponseEntity<Object> findByBalance(@RequestParam(defaultValue = Account.DEFAULT_CURRENCY) String currency,
+                                              @RequestParam(required = false) BigDecimal min,
+                                              @RequestParam(required = false) BigDecimal max,
+                                              @RequestParam(defaultValue = "1000") int limit,
+                                              @RequestParam(defaultValue = "false") boolean indexed) {
+    if (!accountQueryService.supportsCurrency(currency)) {
+      return unsupportedCurrency(currency);
+    }
+    if (limit < 1 || limit > MAX_RESULTS) {
+      return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_RESULTS);
+    }
+    return ResponseEntity.ok(this.accountQueryService.findByBalance(currency, min, max, limit, indexed));
+  }
+
+  @GetMapping(path = "/top")
+  public ResponseEntity<Object> findTopBalances(@RequestParam(defaultValue = Account.DEFAULT_CURRENCY) String currency,
+                                                @RequestParam(defaultValue = "100") int count) {
+    if (!accountQueryService.supportsCurrency(currency)) {
+      return unsupportedCurrency(currency);
+    }
+    if (count < 1 || count > MAX_RESULTS) {
+      return ResponseEntity.badRequest().body("Count must be between 1 and " + MAX_RESULTS);
+    }
+    return ResponseEntity.ok(this.accountQueryService.findTopBalances(currency, count));
+  }
+
+  @GetMapping(path = "/histogram")
+  public ResponseEntity<Object> balanceHistogram(@RequestParam(defaultValue = Account.DEFAULT_CURRENCY) String currency,
+                                                 @RequestParam BigDecimal bucketWidth,
+                                                 @RequestParam(defaultValue = "20") int buckets) {
+    if (!accountQueryService.supportsCurrency(currency)) {
+      return unsupportedCurrency(currency);
+    }
+    if (bucketWidth.signum() <= 0 || buckets < 1 || buckets > MAX_BUCKETS) {
+      return ResponseEntity.badRequest().body("Bucket width must be positive and number of buckets between 1 and " + MAX_BUCKETS);
+    }
+    return ResponseEntity.ok(this.accountQueryService.balanceHistogram(currency, bucketWidth, buckets));
+  }
+
+  private static ResponseEntity<Object> unsupportedCurrency(String currency) {
+    return ResponseEntity.badRequest().body("Unsupported currency " + currency);
+  }
+}
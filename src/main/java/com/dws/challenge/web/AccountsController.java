@@ -1,16 +1,24 @@
 package com.dws.challenge.web;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.domain.ScheduledTransferRequest;
 import com.dws.challenge.domain.TransferRequest;
 import com.dws.challenge.domain.TransferResponse;
 import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.exception.AccountNotFoundException;
+import com.dws.challenge.exception.AccountStateException;
 import com.dws.challenge.exception.DuplicateAccountIdException;
+import com.dws.challenge.exception.TransferRejectedException;
+import com.dws.challenge.service.AccountLifecycleService;
 import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.ScheduledTransferService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/v1/accounts")
@@ -27,10 +36,13 @@ import javax.validation.Valid;
 public class AccountsController {
 
   private final AccountsService accountsService;
+  private final AccountLifecycleService accountLifecycleService;
+  private final ScheduledTransferService scheduledTransferService;
+  private final TransferAdmissionControl transferAdmissionControl;
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<Object> createAccount(@RequestBody @Valid Account account) {
-    log.info("Creating account {}", account);
+    log.debug("Creating account {}", account);
 
     try {
     this.accountsService.createAccount(account);
@@ -47,21 +59,102 @@ public class AccountsController {
     return this.accountsService.getAccount(accountId);
   }
 
+  @PostMapping(path = "/{accountId}/freeze")
+  public ResponseEntity<Object> freezeAccount(@PathVariable String accountId) {
+    return changeLifecycle(() -> this.accountLifecycleService.freeze(accountId));
+  }
+
+  @PostMapping(path = "/{accountId}/unfreeze")
+  public ResponseEntity<Object> unfreezeAccount(@PathVariable String accountId) {
+    return changeLifecycle(() -> this.accountLifecycleService.unfreeze(accountId));
+  }
+
+  @PostMapping(path = "/{accountId}/close")
+  public ResponseEntity<Object> closeAccount(@PathVariable String accountId) {
+    return changeLifecycle(() -> this.accountLifecycleService.close(accountId));
+  }
+
+  @DeleteMapping(path = "/{accountId}")
+  public ResponseEntity<Object> deleteAccount(@PathVariable String accountId) {
+    return changeLifecycle(() -> {
+      this.accountLifecycleService.delete(accountId);
+      return null;
+    });
+  }
+
+  private ResponseEntity<Object> changeLifecycle(Supplier<Account> change) {
+    try {
+      var account = change.get();
+      return account == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(account);
+    } catch (AccountNotFoundException anfe) {
+      return new ResponseEntity<>(anfe.getMessage(), HttpStatus.NOT_FOUND);
+    } catch (AccountStateException ase) {
+      return new ResponseEntity<>(ase.getMessage(), HttpStatus.CONFLICT);
+    }
+  }
+
   @PostMapping(path = "/transfer", consumes = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<TransferResponse> transfer(@RequestBody @Valid TransferRequest request) {
-    TransferStatus result = this.accountsService.transfer(request);
-    switch (result) {
+    if (!this.transferAdmissionControl.tryAcquire(request.getFromAccountId())) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new TransferResponse("Too many concurrent transfers, retry later"));
+    }
+    long start = System.nanoTime();
+    TransferStatus result;
+    try {
+      result = this.accountsService.transfer(request);
+    } finally {
+      this.transferAdmissionControl.release(request.getFromAccountId(), start);
+    }
+    return response(result);
+  }
+
+  private static ResponseEntity<TransferResponse> response(TransferStatus status) {
+    switch (status) {
       case SUCCESS:
         return ResponseEntity.ok(new TransferResponse("Success"));
+      case SAME_ACCOUNT:
+        return ResponseEntity.badRequest().body(new TransferResponse("Transfer to the same account is not allowed"));
       case FROM_ACC_MISSING:
         return ResponseEntity.badRequest().body(new TransferResponse("'From' account does not exist"));
       case TO_ACC_MISSING:
         return ResponseEntity.badRequest().body(new TransferResponse("'To' account does not exist"));
+      case FROM_ACC_FROZEN:
+        return ResponseEntity.badRequest().body(new TransferResponse("'From' account is frozen"));
+      case TO_ACC_FROZEN:
+        return ResponseEntity.badRequest().body(new TransferResponse("'To' account is frozen"));
       case LIMIT_EXCEEDED:
         return ResponseEntity.badRequest().body(new TransferResponse("Transfer limit exceeded"));
+      case UNSUPPORTED_CURRENCY:
+        return ResponseEntity.badRequest().body(new TransferResponse("Currency conversion is not supported"));
+      case AMOUNT_TOO_SMALL:
+        return ResponseEntity.badRequest().body(new TransferResponse("Converted amount is too small"));
+      case SUSPECTED_FRAUD:
+        return ResponseEntity.badRequest().body(new TransferResponse("Transfer was rejected as suspicious"));
       default:
         return ResponseEntity.internalServerError().body(new TransferResponse("Unexpected transfer status"));
     }
   }
 
+  @PostMapping(path = "/transfer/scheduled", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Object> scheduleTransfer(@RequestBody @Valid ScheduledTransferRequest request) {
+    try {
+      return new ResponseEntity<>(this.scheduledTransferService.schedule(request), HttpStatus.CREATED);
+    } catch (TransferRejectedException tre) {
+      return new ResponseEntity<>(response(tre.getStatus()).getBody(), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  @GetMapping(path = "/transfer/scheduled/{id}")
+  public ResponseEntity<ScheduledTransfer> getScheduledTransfer(@PathVariable long id) {
+    var transfer = this.scheduledTransferService.getScheduledTransfer(id);
+    return transfer == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(transfer);
+  }
+
+  @DeleteMapping(path = "/transfer/scheduled/{id}")
+  public ResponseEntity<Void> cancelScheduledTransfer(@PathVariable long id) {
+    return this.scheduledTransferService.cancel(id)
+      ? ResponseEntity.noContent().build()
+      : ResponseEntity.notFound().build();
+  }
+
 }
@@ -0,0 +1,144 @@
+package com.dws.challenge.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit derived from observed latency. Once per window the average latency is compared with the
+ * lowest one seen so far (the latency without queueing):
+ * <ul>
+ *   <li>if it exceeds that baseline by more than the tolerance, the limit is cut multiplicatively</li>
+ *   <li>otherwise the estimated queue, {@code limit * (1 - baseline / latency)}, moves the limit up or down by
+ *   {@code log10(limit)} as in TCP Vegas</li>
+ * </ul>
+ * The baseline is only raised from windows with at most half of the limit in flight, where the latency is not
+ * inflated by queueing: it then moves 1/64 of the way towards the observed latency, so that a persistent change of
+ * the latency without load is eventually accepted, but an overload can't drag the baseline up with it.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long windowNanos;
+  private final int minWindowSamples;
+  private final double latencyTolerance;
+  private final double backoffRatio;
+  private final LongSupplier nanoClock;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+  private volatile long noLoadLatency = Long.MAX_VALUE;
+
+  private final AtomicLong windowStart;
+  private final LongAdder windowSamples = new LongAdder();
+  private final LongAdder windowLatency = new LongAdder();
+  private volatile int windowMaxInFlight;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos,
+                                    int minWindowSamples, double latencyTolerance, double backoffRatio) {
+    this(initialLimit, minLimit, maxLimit, windowNanos, minWindowSamples, latencyTolerance, backoffRatio,
+      System::nanoTime);
+  }
+
+  /**
+   * @param nanoClock source of {@link System#nanoTime()}, replaced by simulations
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos,
+                                    int minWindowSamples, double latencyTolerance, double backoffRatio,
+                                    LongSupplier nanoClock) {
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.windowNanos = windowNanos;
+    this.minWindowSamples = minWindowSamples;
+    this.latencyTolerance = latencyTolerance;
+    this.backoffRatio = backoffRatio;
+    this.nanoClock = nanoClock;
+    this.windowStart = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        if (current + 1 > windowMaxInFlight) {
+          windowMaxInFlight = current + 1;
+        }
+        return true;
+      }
+    }
+  }
+
+  public void release(long latencyNanos) {
+    inFlight.decrementAndGet();
+    windowLatency.add(latencyNanos);
+    windowSamples.increment();
+
+    long now = nanoClock.getAsLong();
+    long start = windowStart.get();
+    if (now - start >= windowNanos && windowSamples.sum() >= minWindowSamples && windowStart.compareAndSet(start, now)) {
+      updateLimit();
+    }
+  }
+
+  /**
+   * Releases a permit of a request which was not executed, so its latency says nothing about the load.
+   */
+  public void cancel() {
+    inFlight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * @return latency considered to be free of queueing, {@link Long#MAX_VALUE} until the first window completes
+   */
+  public long getNoLoadLatency() {
+    return noLoadLatency;
+  }
+
+  private void updateLimit() {
+    long samples = windowSamples.sumThenReset();
+    long latencySum = windowLatency.sumThenReset();
+    int maxInFlight = windowMaxInFlight;
+    // requests admitted in an earlier window and still running count towards the next one
+    windowMaxInFlight = inFlight.get();
+    if (samples == 0) {
+      return;
+    }
+    long latency = Math.max(1, latencySum / samples);
+    int current = limit;
+    long baseline = noLoadLatency;
+    if (latency < baseline) {
+      baseline = latency;
+    } else if (maxInFlight * 2 <= current) {
+      baseline += (latency - baseline + 63) >> 6;
+    }
+    noLoadLatency = baseline;
+
+    int newLimit = current;
+    if (latency > baseline * latencyTolerance) {
+      newLimit = (int) (current * backoffRatio);
+    } else {
+      int step = (int) Math.max(1, Math.log10(current));
+      double queue = current * (1 - (double) baseline / latency);
+      if (queue <= 3 * step && maxInFlight * 2 >= current) {
+        newLimit = current + step;
+      } else if (queue >= 6 * step) {
+        newLimit = current - step;
+      }
+    }
+    limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+  }
+}
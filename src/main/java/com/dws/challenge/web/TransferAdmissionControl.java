@@ -0,0 +1,101 @@
+package com.dws.challenge.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides whether a transfer request is executed or rejected straight away, so that excess load does not pile up
+ * on the request threads waiting for account locks. On top of the adaptive global limit the number of concurrent
+ * transfers from a single account can be capped, counters of accounts without transfers in flight are removed.
+ */
+@Component
+public class TransferAdmissionControl {
+
+  private final boolean enabled;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final int perAccountLimit;
+  private final ConcurrentMap<String, AtomicInteger> accountsInFlight = new ConcurrentHashMap<>();
+
+  private final Counter rejectedByLimit;
+  private final Counter rejectedByAccountLimit;
+
+  public TransferAdmissionControl(@Value("${challenge.admission.enabled:true}") boolean enabled,
+                                  @Value("${challenge.admission.initial-limit:50}") int initialLimit,
+                                  @Value("${challenge.admission.min-limit:10}") int minLimit,
+                                  @Value("${challenge.admission.max-limit:200}") int maxLimit,
+                                  @Value("${challenge.admission.window-ms:100}") long windowMillis,
+                                  @Value("${challenge.admission.min-window-samples:20}") int minWindowSamples,
+                                  @Value("${challenge.admission.latency-tolerance:2.0}") double latencyTolerance,
+                                  @Value("${challenge.admission.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${challenge.admission.per-account-limit:0}") int perAccountLimit,
+                                  MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+      TimeUnit.MILLISECONDS.toNanos(windowMillis), minWindowSamples, latencyTolerance, backoffRatio);
+    this.perAccountLimit = perAccountLimit;
+
+    Gauge.builder("transfers.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+      .description("Current concurrency limit of the transfer endpoint")
+      .register(meterRegistry);
+    Gauge.builder("transfers.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+      .description("Transfers being executed")
+      .register(meterRegistry);
+    this.rejectedByLimit = Counter.builder("transfers.admission.rejected")
+      .tag("reason", "limit")
+      .register(meterRegistry);
+    this.rejectedByAccountLimit = Counter.builder("transfers.admission.rejected")
+      .tag("reason", "account")
+      .register(meterRegistry);
+  }
+
+  public boolean tryAcquire(String fromAccountId) {
+    if (!enabled) {
+      return true;
+    }
+    if (!limiter.tryAcquire()) {
+      rejectedByLimit.increment();
+      return false;
+    }
+    if (perAccountLimit > 0 && !tryAcquireAccount(fromAccountId)) {
+      limiter.cancel();
+      rejectedByAccountLimit.increment();
+      return false;
+    }
+    return true;
+  }
+
+  public void release(String fromAccountId, long startNanos) {
+    if (!enabled) {
+      return;
+    }
+    if (perAccountLimit > 0) {
+      releaseAccount(fromAccountId);
+    }
+    limiter.release(System.nanoTime() - startNanos);
+  }
+
+  private boolean tryAcquireAccount(String accountId) {
+    var admitted = new boolean[1];
+    accountsInFlight.compute(accountId, (key, inFlight) -> {
+      var counter = inFlight == null ? new AtomicInteger() : inFlight;
+      if (counter.get() < perAccountLimit) {
+        counter.incrementAndGet();
+        admitted[0] = true;
+      }
+      return counter.get() == 0 ? null : counter;
+    });
+    return admitted[0];
+  }
+
+  private void releaseAccount(String accountId) {
+    accountsInFlight.computeIfPresent(accountId, (key, inFlight) -> inFlight.decrementAndGet() == 0 ? null : inFlight);
+  }
+}
@@ -0,0 +1,102 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.domain.Recurrence;
+import com.dws.challenge.domain.ScheduledTransferRequest;
+import com.dws.challenge.domain.TransferRequest;
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.exception.AccountNotFoundException;
+import com.dws.challenge.exception.AccountStateException;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.service.AccountLifecycleService;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.ScheduledTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"challenge.scheduler.store-file=", "challenge.compaction.retention-ms=0"})
+class AccountLifecycleServiceTest {
+
+  @Autowired
+  private AccountsService accountsService;
+
+  @Autowired
+  private AccountsRepository accountsRepository;
+
+  @Autowired
+  private AccountLifecycleService accountLifecycleService;
+
+  @Autowired
+  private ScheduledTransferService scheduledTransferService;
+
+  @BeforeEach
+  void createAccounts() {
+    accountsRepository.clearAccounts();
+    accountsService.createAccount(new Account("lifecycle-1", BigDecimal.TEN));
+    accountsService.createAccount(new Account("lifecycle-2", BigDecimal.ZERO));
+  }
+
+  @Test
+  void frozenAccountRejectsTransfers() {
+    accountLifecycleService.freeze("lifecycle-1");
+
+    assertThat(accountsService.transfer(new TransferRequest("lifecycle-1", "lifecycle-2", BigDecimal.ONE)))
+      .isEqualTo(TransferStatus.FROM_ACC_FROZEN);
+    assertThat(accountsService.transfer(new TransferRequest("lifecycle-2", "lifecycle-1", BigDecimal.ONE)))
+      .isEqualTo(TransferStatus.TO_ACC_FROZEN);
+
+    accountLifecycleService.unfreeze("lifecycle-1");
+
+    assertThat(accountsService.transfer(new TransferRequest("lifecycle-1", "lifecycle-2", BigDecimal.ONE)))
+      .isEqualTo(TransferStatus.SUCCESS);
+  }
+
+  @Test
+  void accountWithBalanceCannotBeClosed() {
+    assertThatThrownBy(() -> accountLifecycleService.close("lifecycle-1"))
+      .isInstanceOf(AccountStateException.class)
+      .hasMessageContaining("non-zero balance");
+    assertThat(accountsService.getAccount("lifecycle-1").getStatus()).isEqualTo(AccountStatus.ACTIVE);
+  }
+
+  @Test
+  void closedAccountIsTreatedAsMissing() {
+    accountLifecycleService.close("lifecycle-2");
+
+    assertThat(accountsService.transfer(new TransferRequest("lifecycle-1", "lifecycle-2", BigDecimal.ONE)))
+      .isEqualTo(TransferStatus.TO_ACC_MISSING);
+    assertThatThrownBy(() -> accountLifecycleService.freeze("lifecycle-2"))
+      .isInstanceOf(AccountStateException.class);
+  }
+
+  @Test
+  void deleteRemovesAccountAndItsScheduledTransfers() {
+    var scheduled = scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "lifecycle-1", "lifecycle-2", BigDecimal.ONE, Instant.now().plusSeconds(3600), Recurrence.MONTHLY));
+
+    accountLifecycleService.delete("lifecycle-2");
+
+    assertThat(accountsService.getAccount("lifecycle-2")).isNull();
+    assertThat(scheduledTransferService.getScheduledTransfer(scheduled.getId())).isNull();
+    assertThatThrownBy(() -> accountLifecycleService.delete("lifecycle-2"))
+      .isInstanceOf(AccountNotFoundException.class);
+  }
+
+  @Test
+  void compactionRemovesClosedAccounts() {
+    accountLifecycleService.close("lifecycle-2");
+
+    assertThat(accountLifecycleService.compact()).isEqualTo(1);
+    assertThat(accountsService.getAccount("lifecycle-2")).isNull();
+    assertThat(accountsService.getAccount("lifecycle-1")).isNotNull();
+  }
+}
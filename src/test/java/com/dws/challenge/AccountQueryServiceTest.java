@@ -0,0 +1,103 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.stream.Collectors;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountBalance;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.service.AccountLifecycleService;
+import com.dws.challenge.service.AccountQueryService;
+import com.dws.challenge.service.AccountsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"challenge.scheduler.store-file=", "challenge.query.index-max-age-ms=0"})
+class AccountQueryServiceTest {
+
+  @Autowired
+  private AccountsService accountsService;
+
+  @Autowired
+  private AccountsRepository accountsRepository;
+
+  @Autowired
+  private AccountLifecycleService accountLifecycleService;
+
+  @Autowired
+  private AccountQueryService accountQueryService;
+
+  @BeforeEach
+  void createAccounts() {
+    accountsRepository.clearAccounts();
+    for (int i = 0; i < 100; i++) {
+      accountsService.createAccount(new Account("query-" + i, BigDecimal.valueOf(i)));
+    }
+    accountsService.createAccount(new Account("query-usd", new BigDecimal("1000"), "USD"));
+  }
+
+  @Test
+  void findTopBalances() {
+    assertThat(accountQueryService.findTopBalances("EUR", 3))
+      .extracting(AccountBalance::getAccountId)
+      .containsExactly("query-99", "query-98", "query-97");
+    assertThat(accountQueryService.findTopBalances("USD", 3))
+      .extracting(AccountBalance::getAccountId)
+      .containsExactly("query-usd");
+  }
+
+  @Test
+  void findByBalance() {
+    assertThat(accountQueryService.findByBalance("EUR", BigDecimal.TEN, new BigDecimal("19"), 100, false))
+      .extracting(AccountBalance::getAccountId)
+      .containsExactlyInAnyOrder("query-10", "query-11", "query-12", "query-13", "query-14",
+        "query-15", "query-16", "query-17", "query-18", "query-19");
+    assertThat(accountQueryService.findByBalance("EUR", null, null, 5, false)).hasSize(5);
+  }
+
+  @Test
+  void indexedFindByBalanceMatchesScan() {
+    var scanned = accountQueryService.findByBalance("EUR", new BigDecimal("20.5"), new BigDecimal("40"), 100, false);
+    var indexed = accountQueryService.findByBalance("EUR", new BigDecimal("20.5"), new BigDecimal("40"), 100, true);
+
+    assertThat(indexed).containsExactlyInAnyOrderElementsOf(scanned).hasSize(20);
+    assertThat(indexed.get(0).getAccountId()).isEqualTo("query-21");
+    assertThat(accountQueryService.findByBalance("EUR", new BigDecimal("20.5"), null, 3, true))
+      .extracting(AccountBalance::getAccountId)
+      .containsExactly("query-21", "query-22", "query-23");
+  }
+
+  @Test
+  void closedAccountsAreSkipped() {
+    accountsService.createAccount(new Account("query-closed", BigDecimal.ZERO));
+    accountLifecycleService.close("query-closed");
+
+    assertThat(accountQueryService.findByBalance("EUR", null, BigDecimal.ZERO, 100, true)
+      .stream().map(AccountBalance::getAccountId).collect(Collectors.toList()))
+      .containsExactly("query-0");
+  }
+
+  @Test
+  void balanceHistogram() {
+    var histogram = accountQueryService.balanceHistogram("EUR", BigDecimal.TEN, 5);
+
+    assertThat(histogram.getCounts()).containsExactly(10, 10, 10, 10, 10);
+    assertThat(histogram.getOverflow()).isEqualTo(50);
+  }
+
+  @Test
+  void unsupportedCurrencyIsNotIndexed() {
+    accountQueryService.findByBalance("EUR", null, null, 5, true);
+    var indexed = accountQueryService.getIndexedCurrencies();
+
+    assertThat(accountQueryService.supportsCurrency("XYZ")).isFalse();
+    assertThatThrownBy(() -> accountQueryService.findByBalance("XYZ", null, null, 5, true))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThat(accountQueryService.getIndexedCurrencies()).isEqualTo(indexed).doesNotContain("XYZ");
+  }
+}
@@ -35,7 +35,7 @@ import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.context.WebApplicationContext;
 
-@SpringBootTest
+@SpringBootTest(properties = "challenge.scheduler.store-file=")
 @WebAppConfiguration
 class AccountsControllerTest {
 
@@ -121,7 +121,7 @@ class AccountsControllerTest {
     this.mockMvc.perform(get("/v1/accounts/" + uniqueAccountId))
             .andExpect(status().isOk())
             .andExpect(
-                    content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45}"));
+                    content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45,\"currency\":\"EUR\",\"status\":\"ACTIVE\"}"));
   }
 
   @Test
@@ -484,6 +484,15 @@ class AccountsControllerTest {
     ).andExpect(status().isCreated());
   }
 
+  @Test
+  void queryWithUnsupportedCurrency() throws Exception {
+    this.mockMvc.perform(get("/v1/accounts/query/balance").param("currency", "XYZ").param("indexed", "true"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("Unsupported currency XYZ"));
+    this.mockMvc.perform(get("/v1/accounts/query/top").param("currency", "XYZ"))
+            .andExpect(status().isBadRequest());
+  }
+
   private AssertionMatcher<String> matcherForResponseMessage(String message) {
     return new AssertionMatcher<>() {
       @Override
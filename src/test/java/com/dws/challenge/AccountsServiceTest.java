@@ -6,13 +6,15 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.math.BigDecimal;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferRequest;
+import com.dws.challenge.domain.TransferStatus;
 import com.dws.challenge.exception.DuplicateAccountIdException;
 import com.dws.challenge.service.AccountsService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"challenge.scheduler.store-file=", "challenge.fraud.monitor-only=false"})
 class AccountsServiceTest {
 
   @Autowired
@@ -40,4 +42,59 @@ class AccountsServiceTest {
       assertThat(ex.getMessage()).isEqualTo("Account id " + uniqueId + " already exists!");
     }
   }
+
+  @Test
+  void transfer_convertsCurrency() {
+    String fromId = "Id-eur-" + System.nanoTime();
+    String toId = "Id-usd-" + System.nanoTime();
+    this.accountsService.createAccount(new Account(fromId, new BigDecimal("100.00"), "EUR"));
+    this.accountsService.createAccount(new Account(toId, BigDecimal.ZERO, "USD"));
+
+    var status = this.accountsService.transfer(new TransferRequest(fromId, toId, new BigDecimal("10.00")));
+
+    assertThat(status).isEqualTo(TransferStatus.SUCCESS);
+    assertThat(this.accountsService.getAccount(fromId).getBalance()).isEqualByComparingTo("90.00");
+    assertThat(this.accountsService.getAccount(toId).getBalance()).isEqualByComparingTo("10.86");
+  }
+
+  @Test
+  void transfer_failsOnUnknownCurrency() {
+    String fromId = "Id-eur-" + System.nanoTime();
+    String toId = "Id-xxx-" + System.nanoTime();
+    this.accountsService.createAccount(new Account(fromId, BigDecimal.TEN, "EUR"));
+    this.accountsService.createAccount(new Account(toId, BigDecimal.ZERO, "SEK"));
+
+    var status = this.accountsService.transfer(new TransferRequest(fromId, toId, BigDecimal.ONE));
+
+    assertThat(status).isEqualTo(TransferStatus.UNSUPPORTED_CURRENCY);
+    assertThat(this.accountsService.getAccount(fromId).getBalance()).isEqualByComparingTo("10");
+  }
+
+  @Test
+  void transfer_failsWhenConvertedAmountRoundsToZero() {
+    String fromId = "Id-eur-" + System.nanoTime();
+    String toId = "Id-jpy-" + System.nanoTime();
+    this.accountsService.createAccount(new Account(fromId, BigDecimal.TEN, "EUR"));
+    this.accountsService.createAccount(new Account(toId, BigDecimal.ZERO, "JPY"));
+
+    var status = this.accountsService.transfer(new TransferRequest(fromId, toId, new BigDecimal("0.001")));
+
+    assertThat(status).isEqualTo(TransferStatus.AMOUNT_TOO_SMALL);
+    assertThat(this.accountsService.getAccount(fromId).getBalance()).isEqualByComparingTo("10");
+    assertThat(this.accountsService.getAccount(toId).getBalance()).isEqualByComparingTo("0");
+  }
+
+  @Test
+  void transfer_failsOnLargeAmountToNewPair() {
+    String fromId = "Id-rich-" + System.nanoTime();
+    String toId = "Id-new-" + System.nanoTime();
+    this.accountsService.createAccount(new Account(fromId, new BigDecimal("50000")));
+    this.accountsService.createAccount(new Account(toId, BigDecimal.ZERO));
+
+    var status = this.accountsService.transfer(new TransferRequest(fromId, toId, new BigDecimal("20000")));
+
+    assertThat(status).isEqualTo(TransferStatus.SUSPECTED_FRAUD);
+    assertThat(this.accountsService.getAccount(fromId).getBalance()).isEqualByComparingTo("50000");
+    assertThat(this.accountsService.getAccount(toId).getBalance()).isEqualByComparingTo("0");
+  }
 }
@@ -0,0 +1,96 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import com.dws.challenge.web.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long ONE_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void rejectsAboveLimit() {
+    var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0, 10, 2.0, 0.9);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isFalse();
+
+    limiter.cancel();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.getInFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void growsWhileLatencyIsStable() {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, 10, 2.0, 0.9);
+
+    for (int window = 0; window < 20; window++) {
+      runWindow(limiter, ONE_MS);
+    }
+
+    assertThat(limiter.getLimit()).isGreaterThan(20);
+  }
+
+  @Test
+  void backsOffWhenLatencyGrows() {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, 10, 2.0, 0.9);
+    runWindow(limiter, ONE_MS);
+    var limit = limiter.getLimit();
+
+    runWindow(limiter, 10 * ONE_MS);
+
+    assertThat(limiter.getLimit()).isLessThan(limit);
+  }
+
+  @Test
+  void neverDropsBelowMinimum() {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 5, 100, 0, 1, 2.0, 0.5);
+    runWindow(limiter, ONE_MS);
+
+    for (int window = 0; window < 10; window++) {
+      runWindow(limiter, 100 * ONE_MS);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(5);
+  }
+
+  @Test
+  void baselineDoesNotCreepUnderLoad() {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, 10, 2.0, 0.9);
+    runWindow(limiter, ONE_MS);
+
+    for (int window = 0; window < 500; window++) {
+      runWindow(limiter, 3 * ONE_MS / 2);
+    }
+
+    assertThat(limiter.getNoLoadLatency()).isEqualTo(ONE_MS);
+  }
+
+  @Test
+  void baselineFollowsLatencyOfLightlyLoadedWindows() {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, 10, 2.0, 0.9);
+    runWindow(limiter, ONE_MS);
+
+    for (int request = 0; request < 10_000; request++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+      limiter.release(3 * ONE_MS / 2);
+    }
+
+    assertThat(limiter.getNoLoadLatency()).isCloseTo(3 * ONE_MS / 2, within(ONE_MS / 100));
+  }
+
+  private static void runWindow(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+    var acquired = 0;
+    while (limiter.tryAcquire()) {
+      acquired++;
+    }
+    for (int i = 0; i < acquired; i++) {
+      limiter.release(latencyNanos);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AuditResult;
+import com.dws.challenge.domain.TransferRequest;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.BalanceAuditor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "challenge.scheduler.store-file=")
+class BalanceAuditorTest {
+
+  @Autowired
+  private AccountsService accountsService;
+
+  @Autowired
+  private AccountsRepository accountsRepository;
+
+  @Autowired
+  private BalanceAuditor balanceAuditor;
+
+  @BeforeEach
+  void clearAccounts() {
+    accountsRepository.clearAccounts();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    accountsRepository.clearAccounts();
+  }
+
+  @Test
+  void emptyRepositoryIsConsistent() {
+    var result = balanceAuditor.audit();
+
+    assertThat(result.isConsistent()).isTrue();
+    assertThat(result.isMoneyConserved()).isTrue();
+    assertThat(result.getDrift()).isEmpty();
+  }
+
+  @Test
+  void moneyIsConservedAfterConcurrentTransfers() throws InterruptedException {
+    var accountCount = 10;
+    for (int i = 0; i < accountCount; i++) {
+      accountsService.createAccount(new Account("audit-" + i, BigDecimal.valueOf(100)));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 1_000; i++) {
+      executor.submit(() -> {
+        var random = ThreadLocalRandom.current();
+        var from = random.nextInt(accountCount);
+        var to = (from + 1 + random.nextInt(accountCount - 1)) % accountCount;
+        accountsService.transfer(new TransferRequest("audit-" + from, "audit-" + to, BigDecimal.valueOf(random.nextInt(1, 50))));
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    var result = balanceAuditor.audit();
+
+    assertThat(result.isConsistent()).isTrue();
+    assertThat(result.getExpectedBalances().get(Account.DEFAULT_CURRENCY)).isEqualByComparingTo("1000");
+    assertThat(result.isMoneyConserved()).isTrue();
+  }
+
+  @Test
+  void auditIsConsistentWhileTransfersRun() throws Exception {
+    var accountCount = 10;
+    for (int i = 0; i < accountCount; i++) {
+      var currency = i % 2 == 0 ? "EUR" : "USD";
+      accountsService.createAccount(new Account("audit-" + i, BigDecimal.valueOf(1_000), currency));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    var running = new AtomicBoolean(true);
+    for (int thread = 0; thread < 8; thread++) {
+      executor.submit(() -> {
+        var random = ThreadLocalRandom.current();
+        while (running.get()) {
+          var from = random.nextInt(accountCount);
+          var to = (from + 1 + random.nextInt(accountCount - 1)) % accountCount;
+          accountsService.transfer(new TransferRequest("audit-" + from, "audit-" + to, BigDecimal.valueOf(random.nextInt(1, 50))));
+        }
+      });
+    }
+    try {
+      for (int i = 0; i < 200; i++) {
+        var result = balanceAuditor.audit();
+
+        assertThat(result.isConsistent()).isTrue();
+        assertThat(result.getDrift()).isEmpty();
+      }
+    } finally {
+      running.set(false);
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+  }
+
+  @Test
+  void inconclusiveAuditDoesNotConserveMoney() {
+    assertThat(AuditResult.INCONCLUSIVE.isMoneyConserved()).isFalse();
+  }
+
+  @Test
+  void driftIsReported() {
+    accountsService.createAccount(new Account("audit-1", BigDecimal.TEN));
+    accountsService.getAccount("audit-1").setBalance(BigDecimal.ONE);
+
+    var result = balanceAuditor.audit();
+
+    assertThat(result.isConsistent()).isTrue();
+    assertThat(result.isMoneyConserved()).isFalse();
+    assertThat(result.getDrift().get(Account.DEFAULT_CURRENCY)).isEqualByComparingTo("-9");
+  }
+
+  @Test
+  void moneyIsConservedAfterCrossCurrencyTransfers() {
+    accountsService.createAccount(new Account("audit-eur", BigDecimal.valueOf(100), "EUR"));
+    accountsService.createAccount(new Account("audit-usd", BigDecimal.valueOf(100), "USD"));
+
+    accountsService.transfer(new TransferRequest("audit-eur", "audit-usd", new BigDecimal("33.33")));
+    accountsService.transfer(new TransferRequest("audit-usd", "audit-eur", new BigDecimal("12.34")));
+
+    var result = balanceAuditor.audit();
+
+    assertThat(result.isConsistent()).isTrue();
+    assertThat(result.isMoneyConserved()).isTrue();
+  }
+}
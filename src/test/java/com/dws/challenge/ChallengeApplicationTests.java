@@ -3,7 +3,7 @@ package com.dws.challenge;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "challenge.scheduler.store-file=")
 class ChallengeApplicationTests {
 
 	@Test
@@ -0,0 +1,112 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.dws.challenge.fraud.BloomFilter;
+import com.dws.challenge.fraud.CountMinSketch;
+import com.dws.challenge.fraud.SlidingWindowSketch;
+import org.junit.jupiter.api.Test;
+
+class FraudSketchesTest {
+
+  @Test
+  void countMinSketchNeverUnderestimates() {
+    var sketch = new CountMinSketch(256, 4);
+    var random = new SplittableRandom(42);
+    var keys = new long[1000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextLong();
+      for (int j = 0; j <= i % 5; j++) {
+        sketch.add(keys[i]);
+      }
+    }
+
+    for (int i = 0; i < keys.length; i++) {
+      assertThat(sketch.estimate(keys[i])).isGreaterThanOrEqualTo(i % 5 + 1);
+    }
+  }
+
+  @Test
+  void slidingWindowForgetsOldPeriods() {
+    var sketch = new SlidingWindowSketch(1000, 4, 64, 2);
+
+    sketch.add(1, 0);
+    sketch.add(1, 300);
+    sketch.add(1, 600);
+
+    assertThat(sketch.estimate(1, 900)).isEqualTo(3);
+    assertThat(sketch.estimate(1, 1100)).isEqualTo(2);
+    assertThat(sketch.estimate(1, 1700)).isZero();
+
+    sketch.add(1, 2000);
+    assertThat(sketch.estimate(1, 2000)).isEqualTo(1);
+  }
+
+  @Test
+  void slidingWindowRotatesToClearedBuckets() {
+    var sketch = new SlidingWindowSketch(1000, 4, 64, 2);
+
+    for (long now = 0; now < 10_000; now += 250) {
+      sketch.add(1, now);
+      sketch.add(1, now);
+      sketch.clearRetired();
+      assertThat(sketch.estimate(1, now)).isEqualTo(Math.min(now / 250 + 1, 4) * 2);
+    }
+  }
+
+  @Test
+  void slidingWindowClearsRetiredBucketsWhenNoSpareIsLeft() {
+    var sketch = new SlidingWindowSketch(1000, 4, 64, 2);
+
+    for (long now = 0; now < 10_000; now += 250) {
+      sketch.add(1, now);
+      assertThat(sketch.estimate(1, now)).isEqualTo(Math.min(now / 250 + 1, 4));
+    }
+  }
+
+  @Test
+  void slidingWindowKeepsIncrementsRacingWithRotation() throws InterruptedException {
+    var sketch = new SlidingWindowSketch(1000, 4, 64, 2);
+    sketch.add(1, 0);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 4; i++) {
+      executor.execute(() -> {
+        for (int j = 0; j < 10_000; j++) {
+          sketch.add(2, 1000);
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(sketch.estimate(2, 1000)).isEqualTo(40_000);
+    assertThat(sketch.estimate(1, 1000)).isZero();
+  }
+
+  @Test
+  void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+    var filter = new BloomFilter(10_000, 0.01);
+    var random = new SplittableRandom(42);
+    for (int i = 0; i < 10_000; i++) {
+      filter.add(random.nextLong());
+    }
+
+    random = new SplittableRandom(42);
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(filter.mightContain(random.nextLong())).isTrue();
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (filter.mightContain(random.nextLong())) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(200);
+    assertThat(filter.getInsertions()).isBetween(9_900L, 10_000L);
+  }
+}
@@ -0,0 +1,41 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.dws.challenge.service.FxRates;
+import org.junit.jupiter.api.Test;
+
+class FxRatesTest {
+
+  @Test
+  void convertsRoundingToMinorUnitOfTargetCurrency() throws IOException {
+    var rates = FxRates.parse(new ByteArrayInputStream("EUR=1\nUSD=1.0856\nJPY=161.92\n".getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(rates.convert(new BigDecimal("100"), "EUR", "USD")).isEqualTo(new BigDecimal("108.56"));
+    assertThat(rates.convert(new BigDecimal("108.56"), "USD", "EUR")).isEqualTo(new BigDecimal("100.00"));
+    assertThat(rates.convert(new BigDecimal("1.00"), "USD", "JPY")).isEqualTo(new BigDecimal("149"));
+    assertThat(rates.convert(new BigDecimal("5.5"), "EUR", "EUR")).isEqualTo(new BigDecimal("5.50"));
+  }
+
+  @Test
+  void unknownCurrencyIsNotConverted() {
+    var rates = new FxRates(Map.of("EUR", BigDecimal.ONE));
+
+    assertThat(rates.supports("EUR")).isTrue();
+    assertThat(rates.supports("USD")).isFalse();
+    assertThat(rates.convert(BigDecimal.ONE, "EUR", "USD")).isNull();
+  }
+
+  @Test
+  void nonPositiveRateIsRejected() {
+    assertThatThrownBy(() -> new FxRates(Map.of("EUR", BigDecimal.ONE, "USD", BigDecimal.ZERO)))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+}
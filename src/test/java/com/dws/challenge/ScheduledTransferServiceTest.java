@@ -0,0 +1,110 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.Recurrence;
+import com.dws.challenge.domain.ScheduledTransferRequest;
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.exception.TransferRejectedException;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.ScheduledTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"challenge.scheduler.store-file=", "challenge.scheduler.tick-ms=50"})
+class ScheduledTransferServiceTest {
+
+  @Autowired
+  private AccountsService accountsService;
+
+  @Autowired
+  private AccountsRepository accountsRepository;
+
+  @Autowired
+  private ScheduledTransferService scheduledTransferService;
+
+  @BeforeEach
+  void clearAccounts() {
+    accountsRepository.clearAccounts();
+  }
+
+  @Test
+  void dueTransferIsExecuted() throws InterruptedException {
+    accountsService.createAccount(new Account("scheduled-from", BigDecimal.TEN));
+    accountsService.createAccount(new Account("scheduled-to", BigDecimal.ZERO));
+
+    var transfer = scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-from", "scheduled-to", BigDecimal.ONE, Instant.now().plusMillis(100), Recurrence.NONE));
+
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!transfer.isCompleted() && System.nanoTime() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    assertThat(transfer.getLastStatus()).isEqualTo(TransferStatus.SUCCESS);
+    assertThat(accountsService.getAccount("scheduled-to").getBalance()).isEqualByComparingTo("1");
+    assertThat(scheduledTransferService.getScheduledTransfer(transfer.getId())).isNull();
+  }
+
+  @Test
+  void cancelledTransferIsNotExecuted() throws InterruptedException {
+    accountsService.createAccount(new Account("scheduled-from", BigDecimal.TEN));
+    accountsService.createAccount(new Account("scheduled-to", BigDecimal.ZERO));
+
+    var transfer = scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-from", "scheduled-to", BigDecimal.ONE, Instant.now().plusMillis(200), Recurrence.MONTHLY));
+
+    assertThat(scheduledTransferService.cancel(transfer.getId())).isTrue();
+    TimeUnit.MILLISECONDS.sleep(500);
+
+    assertThat(transfer.getExecutedOccurrences()).isZero();
+    assertThat(accountsService.getAccount("scheduled-from").getBalance()).isEqualByComparingTo("10");
+  }
+
+  @Test
+  void transfersOfAccountsAreCancelled() {
+    for (var accountId : Set.of("scheduled-a", "scheduled-b", "scheduled-c")) {
+      accountsService.createAccount(new Account(accountId, BigDecimal.TEN));
+    }
+    var executeAt = Instant.now().plusSeconds(3_600);
+    var outgoing = scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-a", "scheduled-b", BigDecimal.ONE, executeAt, Recurrence.NONE));
+    var incoming = scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-c", "scheduled-a", BigDecimal.ONE, executeAt, Recurrence.DAILY));
+    var other = scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-b", "scheduled-c", BigDecimal.ONE, executeAt, Recurrence.NONE));
+
+    assertThat(scheduledTransferService.cancelForAccounts(Set.of("scheduled-a"))).isEqualTo(2);
+    assertThat(scheduledTransferService.getScheduledTransfer(outgoing.getId())).isNull();
+    assertThat(scheduledTransferService.getScheduledTransfer(incoming.getId())).isNull();
+    assertThat(scheduledTransferService.getScheduledTransfer(other.getId())).isNotNull();
+
+    assertThat(scheduledTransferService.cancelForAccounts(Set.of("scheduled-b", "scheduled-c"))).isEqualTo(1);
+    assertThat(scheduledTransferService.getScheduledTransfer(other.getId())).isNull();
+  }
+
+  @Test
+  void transferWhichCanNeverSucceedIsRejected() {
+    accountsService.createAccount(new Account("scheduled-from", BigDecimal.TEN));
+    var executeAt = Instant.now().plusSeconds(3_600);
+
+    assertThatThrownBy(() -> scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-from", "scheduled-from", BigDecimal.ONE, executeAt, Recurrence.DAILY)))
+      .isInstanceOfSatisfying(TransferRejectedException.class,
+        e -> assertThat(e.getStatus()).isEqualTo(TransferStatus.SAME_ACCOUNT));
+    assertThatThrownBy(() -> scheduledTransferService.schedule(new ScheduledTransferRequest(
+      "scheduled-from", "scheduled-unknown", BigDecimal.ONE, executeAt, Recurrence.DAILY)))
+      .isInstanceOfSatisfying(TransferRejectedException.class,
+        e -> assertThat(e.getStatus()).isEqualTo(TransferStatus.TO_ACC_MISSING));
+  }
+}
@@ -0,0 +1,79 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import com.dws.challenge.domain.Recurrence;
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.repository.ScheduledTransferStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScheduledTransferStoreTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void claimedOccurrenceIsNotLoadedAgain() throws IOException {
+    var path = directory.resolve("scheduled.bin");
+    var store = new ScheduledTransferStore(path);
+    store.load();
+    store.appendScheduled(transfer(1, Recurrence.NONE));
+    store.appendScheduled(transfer(2, Recurrence.DAILY));
+    store.appendClaimed(1, 1);
+    store.appendClaimed(2, 1);
+    store.sync();
+    // no close: the process crashed right after the claims
+
+    var snapshot = new ScheduledTransferStore(path).load();
+
+    assertThat(snapshot.getTransfers()).extracting(ScheduledTransfer::getId).containsExactly(2L);
+    assertThat(snapshot.getTransfers().get(0).getExecutedOccurrences()).isEqualTo(1);
+    assertThat(snapshot.getLastId()).isEqualTo(2);
+  }
+
+  @Test
+  void lastIdSurvivesCompaction() throws IOException {
+    var path = directory.resolve("scheduled.bin");
+    var store = new ScheduledTransferStore(path);
+    store.load();
+    store.appendScheduled(transfer(7, Recurrence.NONE));
+    store.appendCancelled(7);
+    store.save(List.of(), 7, store.rotate());
+    store.close();
+
+    var snapshot = new ScheduledTransferStore(path).load();
+
+    assertThat(snapshot.getTransfers()).isEmpty();
+    assertThat(snapshot.getLastId()).isEqualTo(7);
+    assertThat(directory.resolve("scheduled.bin.journal.1")).doesNotExist();
+  }
+
+  @Test
+  void tornRecordEndsReplay() throws IOException {
+    var path = directory.resolve("scheduled.bin");
+    var store = new ScheduledTransferStore(path);
+    store.load();
+    store.appendScheduled(transfer(1, Recurrence.NONE));
+    store.close();
+    var journal = directory.resolve("scheduled.bin.journal.1");
+    var content = Files.readAllBytes(journal);
+    Files.write(journal, Arrays.copyOf(content, content.length - 3));
+
+    var snapshot = new ScheduledTransferStore(path).load();
+
+    assertThat(snapshot.getTransfers()).isEmpty();
+  }
+
+  private static ScheduledTransfer transfer(long id, Recurrence recurrence) {
+    return new ScheduledTransfer(id, "from", "to", BigDecimal.ONE, Instant.parse("2030-01-01T00:00:00Z"), recurrence);
+  }
+}
@@ -0,0 +1,50 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.verify;
+
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@SpringBootTest(properties = {"challenge.scheduler.store-file=", "challenge.warmup.iterations=1000"})
+class StartupWarmupTest {
+
+  @Autowired
+  private AccountsService accountsService;
+
+  @Autowired
+  private ApplicationAvailability applicationAvailability;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @MockBean
+  private NotificationService notificationService;
+
+  @Test
+  void warmupLeavesApplicationStateUntouched() {
+    assertThat(accountsService.getAccount("warmup-0")).isNull();
+    assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+  }
+
+  @Test
+  void warmupTransfersAreNotHandedToSubscribers() {
+    verify(notificationService, after(500).never()).notifyAboutTransfer(any(), any());
+  }
+
+  @Test
+  void warmupTransfersAreNotFlaggedByApplicationFraudCheck() {
+    // the warmup overdrafts are large amounts to new pairs
+    assertThat(meterRegistry.get("transfers.fraud.flagged").tag("rule", "new-pair-amount").counter().count())
+      .isZero();
+  }
+}
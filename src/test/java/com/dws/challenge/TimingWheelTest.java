@@ -0,0 +1,68 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dws.challenge.service.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+  @Test
+  void expiresExactlyOnDeadlineAcrossLevels() {
+    var wheel = new TimingWheel<Long>(1, 4, 3, 0);
+    for (long deadline = 1; deadline <= 200; deadline++) {
+      wheel.schedule(deadline, deadline);
+    }
+
+    for (long now = 1; now <= 200; now++) {
+      List<Long> expired = new ArrayList<>();
+      wheel.advance(now, expired::add);
+      assertThat(expired).containsExactly(now);
+    }
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void overdueDeadlineExpiresOnNextTick() {
+    var wheel = new TimingWheel<String>(10, 8, 2, 1_000);
+    wheel.schedule("overdue", 500);
+
+    List<String> expired = new ArrayList<>();
+    wheel.advance(1_009, expired::add);
+    assertThat(expired).isEmpty();
+
+    wheel.advance(1_010, expired::add);
+    assertThat(expired).containsExactly("overdue");
+  }
+
+  @Test
+  void deadlineBetweenTicksDoesNotExpireEarly() {
+    var wheel = new TimingWheel<String>(10, 8, 2, 1_000);
+    wheel.schedule("between", 1_015);
+
+    List<String> expired = new ArrayList<>();
+    wheel.advance(1_019, expired::add);
+    assertThat(expired).isEmpty();
+
+    wheel.advance(1_020, expired::add);
+    assertThat(expired).containsExactly("between");
+  }
+
+  @Test
+  void cancelledTimeoutDoesNotExpire() {
+    var wheel = new TimingWheel<String>(1, 4, 2, 0);
+    var cancelled = wheel.schedule("cancelled", 10);
+    wheel.schedule("kept", 10);
+
+    assertThat(wheel.cancel(cancelled)).isTrue();
+    assertThat(wheel.cancel(cancelled)).isFalse();
+
+    List<String> expired = new ArrayList<>();
+    wheel.advance(100, expired::add);
+    assertThat(expired).containsExactly("kept");
+    assertThat(cancelled.isPending()).isFalse();
+  }
+}
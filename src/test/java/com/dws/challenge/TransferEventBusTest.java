@@ -0,0 +1,156 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.events.OverflowPolicy;
+import com.dws.challenge.events.TransferEvent;
+import com.dws.challenge.events.TransferEventBus;
+import com.dws.challenge.events.TransferEventSubscriber;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class TransferEventBusTest {
+
+  private final Account from = new Account("events-1", BigDecimal.TEN);
+  private final Account to = new Account("events-2", BigDecimal.ZERO);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void blockingSubscriberSeesEveryEventInOrder() throws Exception {
+    var subscriber = new RecordingSubscriber(OverflowPolicy.BLOCK);
+    var bus = new TransferEventBus(8, List.of(subscriber), meterRegistry);
+
+    publishConcurrently(bus, 4, 1000);
+    bus.close();
+
+    assertThat(subscriber.sequences).hasSize(4000);
+    for (int i = 0; i < subscriber.sequences.size(); i++) {
+      assertThat(subscriber.sequences.get(i)).isEqualTo(i);
+    }
+    assertThat(dropped("recording")).isZero();
+  }
+
+  @Test
+  void droppingSubscriberDoesNotHoldPublishersBack() throws Exception {
+    var slow = new RecordingSubscriber(OverflowPolicy.DROP);
+    slow.paused = new CountDownLatch(1);
+    var bus = new TransferEventBus(8, List.of(slow), meterRegistry);
+
+    publishConcurrently(bus, 2, 100);
+    slow.paused.countDown();
+    bus.close();
+
+    assertThat(dropped("recording")).isPositive();
+    assertThat(slow.sequences.size() + dropped("recording")).isEqualTo(200);
+    assertThat(slow.sequences).isSorted().doesNotHaveDuplicates();
+  }
+
+  @Test
+  void eventCarriesTransfer() throws Exception {
+    var subscriber = new RecordingSubscriber(OverflowPolicy.BLOCK);
+    var bus = new TransferEventBus(8, List.of(subscriber), meterRegistry);
+
+    bus.publish(from, to, BigDecimal.ONE, new BigDecimal("1.09"));
+    bus.close();
+
+    assertThat(subscriber.descriptions).containsExactly("events-1 -1 events-2 +1.09 end");
+  }
+
+  @Test
+  void droppingSubscriberSeesOnlyCompleteEvents() throws Exception {
+    var subscriber = new RecordingSubscriber(OverflowPolicy.DROP);
+    var bus = new TransferEventBus(8, List.of(subscriber), meterRegistry);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 8; i++) {
+      var account = new Account("events-" + i, BigDecimal.TEN);
+      executor.execute(() -> {
+        for (int j = 0; j < 10_000; j++) {
+          var amount = BigDecimal.valueOf(j);
+          bus.publish(account, account, amount, amount);
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    bus.close();
+
+    assertThat(subscriber.sequences).isSorted().doesNotHaveDuplicates();
+    assertThat(subscriber.descriptions)
+      .allMatch(description -> description.matches("(\\S+) -(\\d+) \\1 \\+\\2( end)?"));
+  }
+
+  @Test
+  void idleSubscriberIsWokenByPublish() throws Exception {
+    var subscriber = new RecordingSubscriber(OverflowPolicy.BLOCK);
+    subscriber.delivered = new CountDownLatch(1);
+    var bus = new TransferEventBus(8, List.of(subscriber), meterRegistry);
+    Thread.sleep(200);
+
+    bus.publish(from, to, BigDecimal.ONE, BigDecimal.ONE);
+
+    assertThat(subscriber.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+    bus.close();
+  }
+
+  private void publishConcurrently(TransferEventBus bus, int threads, int eventsPerThread) throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      executor.execute(() -> {
+        for (int j = 0; j < eventsPerThread; j++) {
+          bus.publish(from, to, BigDecimal.ONE, BigDecimal.ONE);
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private double dropped(String subscriber) {
+    return meterRegistry.get("transfers.events.dropped").tag("subscriber", subscriber).functionCounter().count();
+  }
+
+  private static class RecordingSubscriber implements TransferEventSubscriber {
+    private final OverflowPolicy overflowPolicy;
+    private final List<Long> sequences = new ArrayList<>();
+    private final List<String> descriptions = new ArrayList<>();
+    private volatile CountDownLatch paused;
+    private volatile CountDownLatch delivered;
+
+    private RecordingSubscriber(OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public String getName() {
+      return "recording";
+    }
+
+    @Override
+    public OverflowPolicy getOverflowPolicy() {
+      return overflowPolicy;
+    }
+
+    @Override
+    public void onEvent(TransferEvent event, boolean endOfBatch) throws InterruptedException {
+      if (paused != null) {
+        paused.await();
+      }
+      sequences.add(event.getSequence());
+      descriptions.add(event.getFrom().getAccountId() + " -" + event.getDebitedAmount() + " "
+        + event.getTo().getAccountId() + " +" + event.getCreditedAmount() + (endOfBatch ? " end" : ""));
+      if (delivered != null) {
+        delivered.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.tracing.TransferPhase;
+import com.dws.challenge.tracing.TransferTracer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TransferTracerTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void sampledTransferIsExported() throws Exception {
+    var exportFile = tempDir.resolve("traces.jsonl");
+    var tracer = new TransferTracer(1, 16, exportFile.toString(), 60_000);
+
+    var trace = tracer.startTrace();
+    trace.phase(TransferPhase.LOOKUP);
+    trace.phase(TransferPhase.BALANCE_UPDATE);
+    trace.finish(TransferStatus.SUCCESS);
+    tracer.close();
+
+    var exported = Files.readString(exportFile);
+    assertThat(exported).startsWith("{\"resourceSpans\":")
+      .contains("\"name\":\"transfer.lookup\"")
+      .contains("\"name\":\"transfer.balance_update\"")
+      .contains("\"name\":\"transfer\"")
+      .contains("\"stringValue\":\"SUCCESS\"");
+    assertThat(exported.lines()).hasSize(1);
+  }
+
+  @Test
+  void fullBufferDropsSpans() throws Exception {
+    var tracer = new TransferTracer(1, 2, tempDir.resolve("traces.jsonl").toString(), 60_000);
+
+    var trace = tracer.startTrace();
+    trace.phase(TransferPhase.LOOKUP);
+    trace.phase(TransferPhase.PAIR_LOCK);
+    trace.phase(TransferPhase.ACCOUNT_LOCKS);
+    trace.finish(TransferStatus.SUCCESS);
+    tracer.close();
+
+    assertThat(tracer.getDroppedSpans()).isEqualTo(2);
+  }
+
+  @Test
+  void bufferOfTerminatedThreadIsDropped() throws Exception {
+    var exportFile = tempDir.resolve("traces.jsonl");
+    var tracer = new TransferTracer(1, 16, exportFile.toString(), 10);
+
+    var thread = new Thread(() -> tracer.startTrace().finish(TransferStatus.SUCCESS));
+    thread.start();
+    thread.join();
+
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (tracer.getSpanBuffers() > 0 && System.nanoTime() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    tracer.close();
+
+    assertThat(tracer.getSpanBuffers()).isZero();
+    assertThat(Files.readString(exportFile)).contains("\"name\":\"transfer\"");
+  }
+
+  @Test
+  void disabledTracerWritesNothing() throws Exception {
+    var exportFile = tempDir.resolve("traces.jsonl");
+    var tracer = new TransferTracer(0, 16, exportFile.toString(), 60_000);
+
+    var trace = tracer.startTrace();
+    trace.phase(TransferPhase.LOOKUP);
+    trace.finish(TransferStatus.SUCCESS);
+    tracer.close();
+
+    assertThat(exportFile).doesNotExist();
+  }
+}
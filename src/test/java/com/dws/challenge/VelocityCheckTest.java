@@ -0,0 +1,127 @@
+package com.dws.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferStatus;
+import com.dws.challenge.fraud.VelocityCheck;
+import com.dws.challenge.service.FxRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+class VelocityCheckTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Account from = new Account("velocity-from");
+  private final FxRateService fxRateService = new FxRateService(new ClassPathResource("fx-rates.properties"));
+
+  @BeforeEach
+  void loadRates() {
+    fxRateService.refresh();
+  }
+
+  private VelocityCheck velocityCheck(boolean monitorOnly) {
+    return new VelocityCheck(true, monitorOnly, 60_000, 6, 1024, 4, 5, BigDecimal.TEN, 3,
+      BigDecimal.valueOf(1000), 1000, fxRateService, meterRegistry);
+  }
+
+  @Test
+  void rejectsFrequentTransfersBetweenSamePair() {
+    var check = velocityCheck(false);
+    var to = new Account("velocity-to");
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(check.check(from, to, BigDecimal.valueOf(100))).isNull();
+    }
+    assertThat(check.check(from, to, BigDecimal.valueOf(100))).isEqualTo(TransferStatus.SUSPECTED_FRAUD);
+    assertThat(check.check(to, from, BigDecimal.valueOf(100))).isNull();
+    assertThat(flagged("pair-frequency")).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsLargeAmountToNewPair() {
+    var check = velocityCheck(false);
+    var to = new Account("velocity-to");
+
+    assertThat(check.check(from, to, BigDecimal.valueOf(5000))).isEqualTo(TransferStatus.SUSPECTED_FRAUD);
+    assertThat(check.check(from, to, BigDecimal.valueOf(100))).isNull();
+    assertThat(check.check(from, to, BigDecimal.valueOf(5000))).isNull();
+    assertThat(flagged("new-pair-amount")).isEqualTo(1);
+  }
+
+  @Test
+  void comparesAmountsInReferenceCurrency() {
+    var check = velocityCheck(false);
+    var fromYen = new Account("velocity-from-jpy", BigDecimal.ZERO, "JPY");
+
+    // about 31 EUR
+    assertThat(check.check(fromYen, new Account("velocity-to-0"), BigDecimal.valueOf(5000))).isNull();
+    // about 1235 EUR
+    assertThat(check.check(fromYen, new Account("velocity-to-1"), BigDecimal.valueOf(200_000)))
+      .isEqualTo(TransferStatus.SUSPECTED_FRAUD);
+    assertThat(flagged("new-pair-amount")).isEqualTo(1);
+  }
+
+  @Test
+  void distinguishesPairsWithSameConcatenatedIds() {
+    var check = velocityCheck(false);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(check.check(new Account("ab"), new Account("c"), BigDecimal.valueOf(100))).isNull();
+    }
+    assertThat(check.check(new Account("a"), new Account("bc"), BigDecimal.valueOf(100))).isNull();
+    assertThat(check.check(new Account("ab"), new Account("c"), BigDecimal.valueOf(100)))
+      .isEqualTo(TransferStatus.SUSPECTED_FRAUD);
+  }
+
+  @Test
+  void rejectsSmallTransfersFanningOut() {
+    var check = velocityCheck(false);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(check.check(from, new Account("velocity-to-" + i), BigDecimal.ONE)).isNull();
+    }
+    assertThat(check.check(from, new Account("velocity-to-3"), BigDecimal.ONE)).isEqualTo(TransferStatus.SUSPECTED_FRAUD);
+    // accounts paid before and larger amounts are not part of the pattern
+    assertThat(check.check(from, new Account("velocity-to-0"), BigDecimal.ONE)).isNull();
+    assertThat(check.check(from, new Account("velocity-to-3"), BigDecimal.valueOf(100))).isNull();
+    assertThat(flagged("fan-out")).isEqualTo(1);
+  }
+
+  @Test
+  void keepsKnownPairsUntilSpareFilterIsCleared() {
+    var check = new VelocityCheck(true, false, 60_000, 6, 1024, 4, 5, BigDecimal.TEN, 3,
+      BigDecimal.valueOf(1000), 10, fxRateService, meterRegistry);
+
+    // the first 10 pairs fill the filter up and rotate to the spare, the next ones can't rotate until it is cleared
+    for (int i = 0; i < 30; i++) {
+      assertThat(check.check(from, new Account("velocity-to-" + i), BigDecimal.valueOf(100))).isNull();
+    }
+    assertThat(check.check(from, new Account("velocity-to-0"), BigDecimal.valueOf(5000))).isNull();
+    assertThat(flagged("new-pair-amount")).isZero();
+  }
+
+  @Test
+  void monitorOnlyCountsWithoutRejecting() {
+    var check = velocityCheck(true);
+
+    assertThat(check.check(from, new Account("velocity-to"), BigDecimal.valueOf(5000))).isNull();
+    assertThat(flagged("new-pair-amount")).isEqualTo(1);
+  }
+
+  @Test
+  void disabledCheckLetsEverythingThrough() {
+    var check = new VelocityCheck(false, false, 60_000, 6, 1024, 4, 0, BigDecimal.TEN, 0,
+      BigDecimal.ZERO, 1000, fxRateService, meterRegistry);
+
+    assertThat(check.check(from, new Account("velocity-to"), BigDecimal.valueOf(5000))).isNull();
+  }
+
+  private double flagged(String rule) {
+    return meterRegistry.get("transfers.fraud.flagged").tag("rule", rule).counter().count();
+  }
+}